@@ -19,8 +19,11 @@ import mytown.config.json.RanksConfig;
 import mytown.config.json.WildPermsConfig;
 import mytown.crash.DatasourceCrashCallable;
 import mytown.handlers.SafemodeHandler;
+import mytown.handlers.Scheduler;
 import mytown.handlers.Ticker;
+import mytown.handlers.UpkeepHandler;
 import mytown.handlers.VisualsHandler;
+import mytown.protection.PermissionCache;
 import mytown.protection.ProtectionUtils;
 import mytown.protection.Protections;
 import mytown.protection.eventhandlers.ExtraEventsHandler;
@@ -101,11 +104,15 @@ public class MyTown {
 
         ProtectionParser.start();
         SafemodeHandler.setSafemode(!DatasourceProxy.start(config));
+        UpkeepHandler.instance.start();
         LOG.info("Started");
     }
 
     @EventHandler
     public void serverStopping(FMLServerStoppingEvent ev) {
+        Scheduler.instance.clear();
+        UpkeepHandler.instance.stop();
+        Protections.instance.whitelistValidator.clear();
         DatasourceProxy.getDatasource().deleteAllBlockOwners();
         ProtectionUtils.saveBlockOwnersToDB();
         DatasourceProxy.stop();
@@ -165,9 +172,11 @@ public class MyTown {
         MinecraftForge.EVENT_BUS.register(playerTracker);
 
         FMLCommonHandler.instance().bus().register(VisualsHandler.instance);
+        FMLCommonHandler.instance().bus().register(Scheduler.instance);
 
         FMLCommonHandler.instance().bus().register(Protections.instance);
         MinecraftForge.EVENT_BUS.register(Protections.instance);
+        MinecraftForge.EVENT_BUS.register(PermissionCache.instance);
 
         if(Config.useExtraEvents)
             MinecraftForge.EVENT_BUS.register(ExtraEventsHandler.getInstance());
@@ -2,40 +2,143 @@ package mytown.api.container;
 
 import mytown.entities.BlockWhitelist;
 import mytown.entities.flag.FlagType;
+import net.minecraft.util.IntHashMap;
+import net.minecraft.util.LongHashMap;
+import net.minecraft.world.ChunkCoordIntPair;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.List;
 
 public class BlockWhitelistsContainer extends ArrayList<BlockWhitelist> {
 
-    public boolean contains(int dim, int x, int y, int z, FlagType flagType) {
-        for (BlockWhitelist bw : this) {
-            if (bw.getDim() == dim && bw.getX() == x && bw.getY() == y && bw.getZ() == z && bw.getFlagType().equals(flagType)) {
-                return true;
-            }
+    /**
+     * Index of the whitelists by dimension and then by packed block position and flag.
+     */
+    private final IntHashMap whitelistsByDim = new IntHashMap();
+
+    /**
+     * Index of the whitelists by dimension and then by chunk, used to find what to validate when a chunk loads.
+     */
+    private final IntHashMap chunksByDim = new IntHashMap();
+
+    @Override
+    public boolean add(BlockWhitelist bw) {
+        boolean result = super.add(bw);
+        if (result) {
+            index(bw);
         }
-        return false;
+        return result;
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+        boolean result = super.remove(obj);
+        if (result && obj instanceof BlockWhitelist) {
+            unindex((BlockWhitelist) obj);
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        whitelistsByDim.clearMap();
+        chunksByDim.clearMap();
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        if (obj instanceof BlockWhitelist) {
+            BlockWhitelist bw = (BlockWhitelist) obj;
+            return get(bw.getDim(), bw.getX(), bw.getY(), bw.getZ(), bw.getFlagType()) == bw;
+        }
+        return super.contains(obj);
+    }
+
+    public boolean contains(int dim, int x, int y, int z, FlagType flagType) {
+        return get(dim, x, y, z, flagType) != null;
     }
 
     public void remove(int dim, int x, int y, int z, FlagType flagType) {
-        for (Iterator<BlockWhitelist> it = iterator(); it.hasNext(); ) {
-            BlockWhitelist bw = it.next();
-            if (bw.getDim() == dim && bw.getX() == x && bw.getY() == y && bw.getZ() == z && bw.getFlagType().equals(flagType)) {
-                it.remove();
-            }
+        BlockWhitelist bw = get(dim, x, y, z, flagType);
+        if (bw != null) {
+            remove(bw);
         }
     }
 
     public BlockWhitelist get(int dim, int x, int y, int z, FlagType flagType) {
-        for (BlockWhitelist bw : this) {
-            if (bw.getDim() == dim && bw.getX() == x && bw.getY() == y && bw.getZ() == z && bw.getFlagType().equals(flagType)) {
-                return bw;
-            }
+        LongHashMap whitelists = (LongHashMap) whitelistsByDim.lookup(dim);
+        if (whitelists == null) {
+            return null;
         }
-        return null;
+        return (BlockWhitelist) whitelists.getValueByKey(key(x, y, z, flagType));
+    }
+
+    /**
+     * Gets the whitelists in the chunk, or an empty list if there are none.
+     */
+    @SuppressWarnings("unchecked")
+    public List<BlockWhitelist> getInChunk(int dim, int chunkX, int chunkZ) {
+        LongHashMap chunks = (LongHashMap) chunksByDim.lookup(dim);
+        if (chunks == null) {
+            return Collections.emptyList();
+        }
+        List<BlockWhitelist> whitelists = (List<BlockWhitelist>) chunks.getValueByKey(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+        return whitelists == null ? Collections.<BlockWhitelist>emptyList() : whitelists;
     }
 
     public void add(int dim, int x, int y, int z, FlagType flagType) {
         add(new BlockWhitelist(dim, x, y, z, flagType));
     }
+
+    /**
+     * Packs the position and flag in a single key: 26 bits for x and z, 8 bits for y and 4 bits for the flag.
+     * There can't be more than 16 flag types, which BlockWhitelistsContainerTest checks.
+     */
+    private static long key(int x, int y, int z, FlagType flagType) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | ((y & 0xFF) << 4) | (flagType.ordinal() & 0xF);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void index(BlockWhitelist bw) {
+        LongHashMap whitelists = (LongHashMap) whitelistsByDim.lookup(bw.getDim());
+        if (whitelists == null) {
+            whitelists = new LongHashMap();
+            whitelistsByDim.addKey(bw.getDim(), whitelists);
+        }
+        whitelists.add(key(bw.getX(), bw.getY(), bw.getZ(), bw.getFlagType()), bw);
+
+        LongHashMap chunks = (LongHashMap) chunksByDim.lookup(bw.getDim());
+        if (chunks == null) {
+            chunks = new LongHashMap();
+            chunksByDim.addKey(bw.getDim(), chunks);
+        }
+        long chunkKey = ChunkCoordIntPair.chunkXZ2Int(bw.getX() >> 4, bw.getZ() >> 4);
+        List<BlockWhitelist> inChunk = (List<BlockWhitelist>) chunks.getValueByKey(chunkKey);
+        if (inChunk == null) {
+            inChunk = new ArrayList<BlockWhitelist>();
+            chunks.add(chunkKey, inChunk);
+        }
+        inChunk.add(bw);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void unindex(BlockWhitelist bw) {
+        LongHashMap whitelists = (LongHashMap) whitelistsByDim.lookup(bw.getDim());
+        long key = key(bw.getX(), bw.getY(), bw.getZ(), bw.getFlagType());
+        if (whitelists != null && whitelists.getValueByKey(key) == bw) {
+            whitelists.remove(key);
+        }
+
+        LongHashMap chunks = (LongHashMap) chunksByDim.lookup(bw.getDim());
+        long chunkKey = ChunkCoordIntPair.chunkXZ2Int(bw.getX() >> 4, bw.getZ() >> 4);
+        List<BlockWhitelist> inChunk = chunks == null ? null : (List<BlockWhitelist>) chunks.getValueByKey(chunkKey);
+        if (inChunk != null) {
+            inChunk.remove(bw);
+            if (inChunk.isEmpty()) {
+                chunks.remove(chunkKey);
+            }
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package mytown.api.container;
+
+import mytown.entities.Plot;
+
+import java.util.Iterator;
+import java.util.ListIterator;
+
+/**
+ * Plots that intersect a single TownBlock, kept sorted by their lowest Y level.
+ * Point lookups stop at the first plot that starts above the point instead of going through the whole list.
+ */
+public class ChunkPlotsContainer extends PlotsContainer {
+
+    public ChunkPlotsContainer(int maxPlots) {
+        super(maxPlots);
+    }
+
+    @Override
+    public boolean add(Plot plot) {
+        ListIterator<Plot> it = listIterator(size());
+        while (it.hasPrevious()) {
+            if (it.previous().getStartY() <= plot.getStartY()) {
+                it.next();
+                break;
+            }
+        }
+        it.add(plot);
+        return true;
+    }
+
+    @Override
+    public Plot get(int dim, int x, int y, int z) {
+        for (Iterator<Plot> it = iterator(); it.hasNext(); ) {
+            Plot plot = it.next();
+            if (plot.getStartY() > y) {
+                return null;
+            }
+            if (plot.isCoordWithin(dim, x, y, z)) {
+                return plot;
+            }
+        }
+        return null;
+    }
+}
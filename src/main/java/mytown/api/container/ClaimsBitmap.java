@@ -0,0 +1,117 @@
+package mytown.api.container;
+
+import net.minecraft.util.IntHashMap;
+import net.minecraft.util.LongHashMap;
+import net.minecraft.world.ChunkCoordIntPair;
+
+/**
+ * Bitmap of all the claimed chunks, grouped in regions of 32x32 chunks for each dimension.
+ * Regions without any claim are not stored, so checking a position in the wild is a single miss.
+ */
+public class ClaimsBitmap {
+
+    private static final int REGION_SHIFT = 5;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+    private static final int REGION_WORDS = (1 << (REGION_SHIFT * 2)) / 64;
+
+    private final IntHashMap regionsByDim = new IntHashMap();
+
+    public void set(int dim, int chunkX, int chunkZ) {
+        LongHashMap regions = (LongHashMap) regionsByDim.lookup(dim);
+        if (regions == null) {
+            regions = new LongHashMap();
+            regionsByDim.addKey(dim, regions);
+        }
+        long key = ChunkCoordIntPair.chunkXZ2Int(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        long[] region = (long[]) regions.getValueByKey(key);
+        if (region == null) {
+            region = new long[REGION_WORDS];
+            regions.add(key, region);
+        }
+        int bit = bitIndex(chunkX, chunkZ);
+        region[bit >> 6] |= 1L << (bit & 63);
+    }
+
+    public void clear(int dim, int chunkX, int chunkZ) {
+        LongHashMap regions = (LongHashMap) regionsByDim.lookup(dim);
+        if (regions == null) {
+            return;
+        }
+        long key = ChunkCoordIntPair.chunkXZ2Int(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        long[] region = (long[]) regions.getValueByKey(key);
+        if (region == null) {
+            return;
+        }
+        int bit = bitIndex(chunkX, chunkZ);
+        region[bit >> 6] &= ~(1L << (bit & 63));
+
+        for (long word : region) {
+            if (word != 0) {
+                return;
+            }
+        }
+        regions.remove(key);
+    }
+
+    /**
+     * Checks if the chunk is claimed by any town.
+     */
+    public boolean isClaimed(int dim, int chunkX, int chunkZ) {
+        long[] region = getRegion(dim, chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        if (region == null) {
+            return false;
+        }
+        int bit = bitIndex(chunkX, chunkZ);
+        return (region[bit >> 6] & (1L << (bit & 63))) != 0;
+    }
+
+    /**
+     * Checks if any chunk in the box (inclusive, in chunk coordinates) is claimed by any town.
+     */
+    public boolean isAnyClaimed(int dim, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        if (regionsByDim.lookup(dim) == null) {
+            return false;
+        }
+        for (int regionX = minChunkX >> REGION_SHIFT; regionX <= maxChunkX >> REGION_SHIFT; regionX++) {
+            for (int regionZ = minChunkZ >> REGION_SHIFT; regionZ <= maxChunkZ >> REGION_SHIFT; regionZ++) {
+                long[] region = getRegion(dim, regionX, regionZ);
+                if (region == null) {
+                    continue;
+                }
+
+                int startX = Math.max(minChunkX, regionX << REGION_SHIFT) & REGION_MASK;
+                int endX = Math.min(maxChunkX, (regionX << REGION_SHIFT) + REGION_MASK) & REGION_MASK;
+                int startZ = Math.max(minChunkZ, regionZ << REGION_SHIFT) & REGION_MASK;
+                int endZ = Math.min(maxChunkZ, (regionZ << REGION_SHIFT) + REGION_MASK) & REGION_MASK;
+
+                // Each row of 32 chunks takes half of a word
+                long rowMask = ((1L << (endX - startX + 1)) - 1) << startX;
+                for (int z = startZ; z <= endZ; z++) {
+                    if ((region[z >> 1] & (rowMask << ((z & 1) << REGION_SHIFT))) != 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if any chunk in the given radius (in chunks) around the chunk is claimed by any town.
+     */
+    public boolean isAnyClaimedNear(int dim, int chunkX, int chunkZ, int radius) {
+        return isAnyClaimed(dim, chunkX - radius, chunkZ - radius, chunkX + radius, chunkZ + radius);
+    }
+
+    private long[] getRegion(int dim, int regionX, int regionZ) {
+        LongHashMap regions = (LongHashMap) regionsByDim.lookup(dim);
+        if (regions == null) {
+            return null;
+        }
+        return (long[]) regions.getValueByKey(ChunkCoordIntPair.chunkXZ2Int(regionX, regionZ));
+    }
+
+    private static int bitIndex(int chunkX, int chunkZ) {
+        return ((chunkZ & REGION_MASK) << REGION_SHIFT) | (chunkX & REGION_MASK);
+    }
+}
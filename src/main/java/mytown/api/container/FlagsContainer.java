@@ -6,24 +6,42 @@ import mytown.entities.flag.FlagType;
 import myessentials.utils.ColorUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 
 public class FlagsContainer extends ArrayList<Flag> {
 
-    public boolean contains(FlagType type) {
-        for (Flag flag : this) {
-            if (flag.getFlagType() == type) {
-                return true;
-            }
+    /**
+     * The flags indexed by the ordinal of their type, kept in sync with the list.
+     */
+    private final Flag[] flagsByType = new Flag[FlagType.values().length];
+
+    @Override
+    public boolean add(Flag flag) {
+        flagsByType[flag.getFlagType().ordinal()] = flag;
+        return super.add(flag);
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+        if (obj instanceof Flag && flagsByType[((Flag) obj).getFlagType().ordinal()] == obj) {
+            flagsByType[((Flag) obj).getFlagType().ordinal()] = null;
         }
-        return false;
+        return super.remove(obj);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(flagsByType, null);
+        super.clear();
+    }
+
+    public boolean contains(FlagType type) {
+        return flagsByType[type.ordinal()] != null;
     }
 
     public Flag get(FlagType type) {
-        for (Flag flag : this)
-            if (flag.getFlagType() == type)
-                return flag;
-        return null;
+        return flagsByType[type.ordinal()];
     }
 
     public void remove(FlagType type) {
@@ -32,14 +50,36 @@ public class FlagsContainer extends ArrayList<Flag> {
                 it.remove();
             }
         }
+        flagsByType[type.ordinal()] = null;
     }
 
     public Object getValue(FlagType type) {
-        for (Flag flag : this) {
-            if (flag.getFlagType() == type)
-                return flag.getValue();
+        Flag flag = flagsByType[type.ordinal()];
+        return flag == null ? type.getDefaultValue() : flag.getValue();
+    }
+
+    /**
+     * Gets the value of a flag that stores a Boolean, falling back to the type's default value.
+     */
+    public boolean getBoolean(FlagType type) {
+        return (Boolean) getValue(type);
+    }
+
+    /**
+     * Gets the value of a flag that stores a String, falling back to the type's default value.
+     */
+    public String getString(FlagType type) {
+        return (String) getValue(type);
+    }
+
+    /**
+     * Checks if the flag currently has the given value, using the typed accessors where possible.
+     */
+    public boolean hasValue(FlagType type, Object value) {
+        if (type.getType() == Boolean.class) {
+            return value instanceof Boolean && getBoolean(type) == (Boolean) value;
         }
-        return type.getDefaultValue();
+        return getValue(type).equals(value);
     }
 
     public String toStringForTowns() {
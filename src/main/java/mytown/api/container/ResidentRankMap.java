@@ -8,6 +8,30 @@ import java.util.HashMap;
 
 public class ResidentRankMap extends HashMap<Resident, Rank> {
 
+    /**
+     * The resident with the mayor rank, found again only after the map or a rank's type changed.
+     */
+    private Resident mayor;
+    private boolean mayorValid = false;
+
+    @Override
+    public Rank put(Resident res, Rank rank) {
+        mayorValid = false;
+        return super.put(res, rank);
+    }
+
+    @Override
+    public Rank remove(Object res) {
+        mayorValid = false;
+        return super.remove(res);
+    }
+
+    @Override
+    public void clear() {
+        mayorValid = false;
+        super.clear();
+    }
+
     public void remove(Resident res) {
         /*
         for (Iterator<Plot> it = res.getCurrentTown().plotsContainer.asList().iterator(); it.hasNext(); ) {
@@ -17,7 +41,7 @@ public class ResidentRankMap extends HashMap<Resident, Rank> {
             }
         }
         */
-        super.remove(res);
+        remove((Object) res);
     }
 
     public boolean contains(String username) {
@@ -30,12 +54,24 @@ public class ResidentRankMap extends HashMap<Resident, Rank> {
     }
 
     public Resident getMayor() {
-        for(Entry<Resident, Rank> entry : entrySet()) {
-            if(entry.getValue().getType() == Rank.Type.MAYOR) {
-                return entry.getKey();
+        if (!mayorValid) {
+            mayor = null;
+            for(Entry<Resident, Rank> entry : entrySet()) {
+                if(entry.getValue().getType() == Rank.Type.MAYOR) {
+                    mayor = entry.getKey();
+                    break;
+                }
             }
+            mayorValid = true;
         }
-        return null;
+        return mayor;
+    }
+
+    /**
+     * Makes the mayor be searched again. Called when the type of a rank changes.
+     */
+    public void invalidateMayor() {
+        mayorValid = false;
     }
 
     @Override
@@ -4,24 +4,119 @@ import mytown.entities.Resident;
 import myessentials.utils.ColorUtils;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 public class ResidentsContainer extends ArrayList<Resident> {
 
-    public Resident get(UUID uuid) {
-        for (Resident res : this) {
-            if (res.getUUID().equals(uuid)) {
-                return res;
+    /**
+     * Indexes kept in sync with the list, every method changing the list goes through them.
+     * A resident is only added once. The name index is only a hint since player names can change.
+     */
+    private final Map<UUID, Resident> residentsByUUID = new HashMap<UUID, Resident>();
+    private final Map<String, Resident> residentsByName = new HashMap<String, Resident>();
+
+    @Override
+    public boolean add(Resident res) {
+        if (contains(res.getUUID())) {
+            return false;
+        }
+        super.add(res);
+        index(res);
+        return true;
+    }
+
+    @Override
+    public void add(int i, Resident res) {
+        if (!contains(res.getUUID())) {
+            super.add(i, res);
+            index(res);
+        }
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Resident> residents) {
+        boolean result = false;
+        for (Resident res : residents) {
+            result |= add(res);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean addAll(int i, Collection<? extends Resident> residents) {
+        int size = size();
+        for (Resident res : residents) {
+            add(i + size() - size, res);
+        }
+        return size() != size;
+    }
+
+    @Override
+    public Resident set(int i, Resident res) {
+        Resident old = get(i);
+        if (residentsByUUID.containsKey(res.getUUID()) && !old.getUUID().equals(res.getUUID())) {
+            throw new IllegalArgumentException("Resident " + res.getPlayerName() + " is already in the container");
+        }
+        super.set(i, res);
+        unindex(old);
+        index(res);
+        return old;
+    }
+
+    @Override
+    public Resident remove(int i) {
+        Resident res = super.remove(i);
+        unindex(res);
+        return res;
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+        if (super.remove(obj)) {
+            if (obj instanceof Resident) {
+                unindex((Resident) obj);
             }
+            return true;
         }
-        return null;
+        return false;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean result = super.removeAll(c);
+        if (result) {
+            reindex();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        boolean result = super.retainAll(c);
+        if (result) {
+            reindex();
+        }
+        return result;
+    }
+
+    public Resident get(UUID uuid) {
+        return residentsByUUID.get(uuid);
     }
 
     public Resident get(String username) {
-        for (Resident res : this) {
-            if (res.getPlayerName().equals(username)) {
-                return res;
+        Resident res = residentsByName.get(username);
+        if (res != null && res.getPlayerName().equals(username)) {
+            return res;
+        }
+
+        // The name might have changed since it was indexed
+        for (Resident r : this) {
+            if (r.getPlayerName().equals(username)) {
+                residentsByName.put(username, r);
+                return r;
             }
         }
         return null;
@@ -36,34 +131,59 @@ public class ResidentsContainer extends ArrayList<Resident> {
             }
         }
         */
-        super.remove(res);
+        remove((Object) res);
     }
 
     public void remove(UUID uuid) {
-        for(Iterator<Resident> it = iterator(); it.hasNext();) {
-            Resident res = it.next();
-            if(res.getUUID().equals(uuid)) {
-                it.remove();
-            }
+        Resident res = residentsByUUID.get(uuid);
+        if (res != null) {
+            remove((Object) res);
         }
     }
 
-    public boolean contains(String username) {
-        for (Resident res : this) {
-            if (res.getPlayerName().equals(username)) {
-                return true;
-            }
+    @Override
+    public void clear() {
+        super.clear();
+        residentsByUUID.clear();
+        residentsByName.clear();
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        if (obj instanceof Resident) {
+            return residentsByUUID.get(((Resident) obj).getUUID()) == obj;
         }
-        return false;
+        return super.contains(obj);
+    }
+
+    public boolean contains(String username) {
+        return get(username) != null;
     }
 
     public boolean contains(UUID uuid) {
+        return residentsByUUID.containsKey(uuid);
+    }
+
+    private void index(Resident res) {
+        residentsByUUID.put(res.getUUID(), res);
+        residentsByName.put(res.getPlayerName(), res);
+    }
+
+    private void reindex() {
+        residentsByUUID.clear();
+        residentsByName.clear();
         for (Resident res : this) {
-            if (res.getUUID().equals(uuid)) {
-                return true;
-            }
+            index(res);
+        }
+    }
+
+    private void unindex(Resident res) {
+        if (residentsByUUID.get(res.getUUID()) == res) {
+            residentsByUUID.remove(res.getUUID());
+        }
+        if (residentsByName.get(res.getPlayerName()) == res) {
+            residentsByName.remove(res.getPlayerName());
         }
-        return false;
     }
 
     @Override
@@ -5,6 +5,9 @@ import mytown.entities.TownBlock;
 import mytown.handlers.VisualsHandler;
 import myessentials.utils.ColorUtils;
 import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.util.IntHashMap;
+import net.minecraft.util.LongHashMap;
+import net.minecraft.world.ChunkCoordIntPair;
 
 import java.util.ArrayList;
 
@@ -13,34 +16,67 @@ public class TownBlocksContainer extends ArrayList<TownBlock> {
     private int extraBlocks;
     private int maxFarClaims;
 
+    /**
+     * Index of the blocks by dimension and then by packed chunk coordinates.
+     * Uses the same primitive maps vanilla uses for its loaded chunks so lookups don't box.
+     */
+    private final IntHashMap blocksByDim = new IntHashMap();
+
+    @Override
     public boolean add(TownBlock block) {
         boolean result = super.add(block);
+        if (result) {
+            index(block);
+        }
         VisualsHandler.instance.updateTownBorders(this);
         return result;
     }
 
     public boolean remove(TownBlock block) {
         boolean result = super.remove(block);
+        if (result) {
+            unindex(block);
+        }
         VisualsHandler.instance.updateTownBorders(this);
         return result;
     }
 
-    public boolean contains(int dim, int x, int z) {
-        for(TownBlock block : this) {
-            if(block.getX() == x && block.getZ() == z && block.getDim() == dim) {
-                return true;
-            }
+    @Override
+    public boolean contains(Object obj) {
+        if (obj instanceof TownBlock) {
+            TownBlock block = (TownBlock) obj;
+            return get(block.getDim(), block.getX(), block.getZ()) == block;
         }
-        return false;
+        return super.contains(obj);
+    }
+
+    public boolean contains(int dim, int x, int z) {
+        return get(dim, x, z) != null;
     }
 
     public TownBlock get(int dim, int x, int z) {
-        for(TownBlock block : this) {
-            if(block.getX() == x && block.getZ() == z && block.getDim() == dim) {
-                return block;
-            }
+        LongHashMap blocks = (LongHashMap) blocksByDim.lookup(dim);
+        if (blocks == null) {
+            return null;
+        }
+        return (TownBlock) blocks.getValueByKey(ChunkCoordIntPair.chunkXZ2Int(x, z));
+    }
+
+    private void index(TownBlock block) {
+        LongHashMap blocks = (LongHashMap) blocksByDim.lookup(block.getDim());
+        if (blocks == null) {
+            blocks = new LongHashMap();
+            blocksByDim.addKey(block.getDim(), blocks);
+        }
+        blocks.add(ChunkCoordIntPair.chunkXZ2Int(block.getX(), block.getZ()), block);
+    }
+
+    private void unindex(TownBlock block) {
+        LongHashMap blocks = (LongHashMap) blocksByDim.lookup(block.getDim());
+        long key = ChunkCoordIntPair.chunkXZ2Int(block.getX(), block.getZ());
+        if (blocks != null && blocks.getValueByKey(key) == block) {
+            blocks.remove(key);
         }
-        return null;
     }
 
     public int getExtraBlocks() {
@@ -168,7 +168,7 @@ public abstract class Commands {
         Town town = MyTownUtils.getTownAtPosition(dim, x >> 4, z >> 4);
         if (town == null)
             throw new MyTownCommandException("mytown.cmd.err.blockNotInPlot");
-        Plot plot = town.plotsContainer.get(dim, x, y, z);
+        Plot plot = town.getPlotAtCoords(dim, x, y, z);
         if (plot == null)
             throw new MyTownCommandException("mytown.cmd.err.blockNotInPlot");
         return plot;
@@ -19,6 +19,9 @@ import mytown.entities.flag.FlagType;
 import mytown.entities.tools.WhitelisterTool;
 import mytown.handlers.SafemodeHandler;
 import mytown.handlers.VisualsHandler;
+import mytown.protection.PermissionCache;
+import mytown.protection.PermissionNodeCache;
+import mytown.protection.Protections;
 import mytown.util.exceptions.MyTownCommandException;
 import net.minecraft.block.Block;
 import net.minecraft.block.ITileEntityProvider;
@@ -28,6 +31,7 @@ import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemBlock;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.tileentity.TileEntity;
+import net.minecraftforge.common.DimensionManager;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -71,6 +75,8 @@ public class CommandsAdmin extends Commands {
         sendMessageBackToSender(sender, getLocal().getLocalization("mytown.cmd.config.load.start"));
         MyTown.instance.loadConfigs();
         getDatasource().checkAllOnStart();
+        PermissionNodeCache.instance.flushAll();
+        PermissionCache.instance.invalidateAll();
         sendMessageBackToSender(sender, getLocal().getLocalization("mytown.cmd.config.load.stop"));
         return CommandResponse.DONE;
     }
@@ -1371,4 +1377,26 @@ public class CommandsAdmin extends Commands {
         town.sendToSpawn(res);
         return CommandResponse.DONE;
     }
+
+    @Command(
+            name = "stats",
+            permission = "mytown.adm.cmd.stats",
+            parentName = "mytown.adm.cmd",
+            syntax = "/townadmin stats",
+            console = true)
+    public static CommandResponse statsCommand(ICommandSender sender, List<String> args) {
+        String scans = "";
+        String dash = ColorUtils.colorInfoText + " - ";
+        for (Integer dim : DimensionManager.getIDs()) {
+            int period = Protections.instance.getEntityScanPeriod(dim);
+            scans += "\\n" + dash + "DIM " + dim + " (" + (period == -1 ? "-" : period + " ticks") + ")";
+        }
+
+        long hits = PermissionNodeCache.instance.getHits();
+        long lookups = hits + PermissionNodeCache.instance.getMisses();
+        String nodeCache = hits + "/" + lookups + " (" + (lookups == 0 ? 0 : hits * 100 / lookups) + "%)";
+
+        sendMessageBackToSender(sender, getLocal().getLocalization("mytown.notification.stats", scans, Protections.instance.getEntityScanOverruns(), nodeCache));
+        return CommandResponse.DONE;
+    }
 }
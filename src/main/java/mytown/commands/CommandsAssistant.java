@@ -11,10 +11,8 @@ import mytown.config.Config;
 import mytown.datasource.MyTownUniverse;
 import mytown.entities.*;
 import mytown.entities.flag.Flag;
-import mytown.entities.flag.FlagType;
 import mytown.entities.tools.WhitelisterTool;
 import mytown.proxies.EconomyProxy;
-import mytown.util.MyTownUtils;
 import mytown.util.exceptions.MyTownCommandException;
 import net.minecraft.command.ICommandSender;
 import net.minecraft.entity.player.EntityPlayer;
@@ -70,13 +68,9 @@ public class CommandsAssistant extends Commands {
                     throw new MyTownCommandException("mytown.cmd.err.claim.far.notAllowed");
                 isFarClaim = true;
             }
-            for (int x = player.chunkCoordX - Config.distanceBetweenTowns; x <= player.chunkCoordX + Config.distanceBetweenTowns; x++) {
-                for (int z = player.chunkCoordZ - Config.distanceBetweenTowns; z <= player.chunkCoordZ + Config.distanceBetweenTowns; z++) {
-                    Town nearbyTown = MyTownUtils.getTownAtPosition(player.dimension, x, z);
-                    if (nearbyTown != null && nearbyTown != town && !(Boolean) nearbyTown.flagsContainer.getValue(FlagType.NEARBY))
-                        throw new MyTownCommandException("mytown.cmd.err.claim.tooClose", nearbyTown.getName(), Config.distanceBetweenTowns);
-                }
-            }
+            Town nearbyTown = getUniverse().getClosestBlockingTown(player.dimension, player.chunkCoordX, player.chunkCoordZ, Config.distanceBetweenTowns, town);
+            if (nearbyTown != null)
+                throw new MyTownCommandException("mytown.cmd.err.claim.tooClose", nearbyTown.getName(), Config.distanceBetweenTowns);
 
             if (isFarClaim && town.townBlocksContainer.getFarClaims() + 1 > town.townBlocksContainer.getMaxFarClaims())
                 throw new MyTownCommandException("mytown.cmd.err.claim.far.notAllowed");
@@ -107,13 +101,9 @@ public class CommandsAssistant extends Commands {
                 if (getUniverse().blocks.contains(player.dimension, chunk.getX(), chunk.getZ()))
                     it.remove();
 
-                for (int x = chunk.getX() - Config.distanceBetweenTowns; x <= chunk.getX() + Config.distanceBetweenTowns; x++) {
-                    for (int z = chunk.getZ() - Config.distanceBetweenTowns; z <= chunk.getZ() + Config.distanceBetweenTowns; z++) {
-                        Town nearbyTown = MyTownUtils.getTownAtPosition(player.dimension, x, z);
-                        if (nearbyTown != null && nearbyTown != town && !(Boolean) nearbyTown.flagsContainer.getValue(FlagType.NEARBY))
-                            throw new MyTownCommandException("mytown.cmd.err.claim.tooClose", nearbyTown.getName(), Config.distanceBetweenTowns);
-                    }
-                }
+                Town nearbyTown = getUniverse().getClosestBlockingTown(player.dimension, chunk.getX(), chunk.getZ(), Config.distanceBetweenTowns, town);
+                if (nearbyTown != null)
+                    throw new MyTownCommandException("mytown.cmd.err.claim.tooClose", nearbyTown.getName(), Config.distanceBetweenTowns);
             }
 
             if (town.townBlocksContainer.size() + chunks.size() > town.getMaxBlocks())
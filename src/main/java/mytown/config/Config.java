@@ -88,6 +88,9 @@ public class Config {
     @ConfigProperty(category = "towns", name = "upkeepTownDeletionDays", comment = "The amount of days a town can go on without paying upkeep.")
     public static int upkeepTownDeletionDays = 7;
 
+    @ConfigProperty(category = "towns", name = "upkeepWindow", comment = "The amount of server ticks over which the daily upkeep of all the towns is spread.")
+    public static int upkeepWindow = 1200;
+
     @ConfigProperty(category = "plots", name = "minPlotsArea", comment = "The minimum area required to create a plot. (X*Z)")
     public static int minPlotsArea = 9;
 
@@ -109,6 +112,36 @@ public class Config {
     @ConfigProperty(category = "protection", name = "useExtraEvents", comment = "If you have Forge 1254 or higher you can enable this feature. It provides more accurate protection.")
     public static boolean useExtraEvents = ClassUtils.isClassLoaded("net.minecraftforge.event.world.ExplosionEvent");
 
+    @ConfigProperty(category = "protection", name = "permissionCacheSize", comment = "The maximum amount of permission decisions kept in cache. Set to 0 to disable the cache.")
+    public static int permissionCacheSize = 8192;
+
+    @ConfigProperty(category = "protection", name = "permissionCacheTicks", comment = "The amount of time in server ticks a cached permission decision is used for before being checked again.")
+    public static int permissionCacheTicks = 100;
+
+    @ConfigProperty(category = "protection", name = "permissionNodeCacheTicks", comment = "The amount of time in server ticks the op status and permission nodes of a player are cached for. Set to 0 to disable the cache.")
+    public static int permissionNodeCacheTicks = 100;
+
+    @ConfigProperty(category = "protection", name = "denialMessageCooldown", comment = "The amount of time in server ticks in which the same protection denial is only sent once to a player. Repeated denials are sent as a count afterwards.")
+    public static int denialMessageCooldown = 40;
+
+    @ConfigProperty(category = "protection", name = "entityCheckPeriod", comment = "The amount of server ticks in which all the loaded entities are checked once by the protections.")
+    public static int entityCheckPeriod = 20;
+
+    @ConfigProperty(category = "protection", name = "entityChecksPerTick", comment = "The maximum amount of entities checked by the protections in a dimension each tick. If it's reached the full check takes longer than entityCheckPeriod. Set to 0 for no limit.")
+    public static int entityChecksPerTick = 1000;
+
+    @ConfigProperty(category = "protection", name = "tileEntityCheckRange", comment = "The distance in chunks from the closest claim in which the tracked tile entities are checked by the protections. Increase it if tile entities can reach further into towns.")
+    public static int tileEntityCheckRange = 1;
+
+    @ConfigProperty(category = "protection", name = "tileEntityReindexPeriod", comment = "The amount of server ticks after which all the loaded tile entities are indexed again, to catch the ones that were placed without any event.")
+    public static int tileEntityReindexPeriod = 1200;
+
+    @ConfigProperty(category = "protection", name = "blockWhitelistChecksPerTick", comment = "The maximum amount of block whitelists checked each tick. Whitelists are only checked while their chunk is loaded.")
+    public static int blockWhitelistChecksPerTick = 20;
+
+    @ConfigProperty(category = "protection", name = "blockWhitelistSweepPeriod", comment = "The amount of server ticks after which all the block whitelists in loaded chunks are queued to be checked again.")
+    public static int blockWhitelistSweepPeriod = 600;
+
     //@ConfigProperty(category = "extra", name = "debug", comment = "Enables debugging output to console, use '/ta debug' to toggle ingame")
     //public static boolean debug;
 
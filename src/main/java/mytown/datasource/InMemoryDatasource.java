@@ -3,6 +3,8 @@ package mytown.datasource;
 import mytown.entities.*;
 import mytown.entities.flag.Flag;
 
+import java.util.List;
+
 public class InMemoryDatasource extends MyTownDatasource {
     @Override
     public boolean initialize() {
@@ -211,6 +213,11 @@ public class InMemoryDatasource extends MyTownDatasource {
         return false;
     }
 
+    @Override
+    public boolean saveTownBanks(List<Bank> banks) {
+        return false;
+    }
+
     /*
 
     @Override
@@ -362,6 +369,11 @@ public class InMemoryDatasource extends MyTownDatasource {
         return true;
     }
 
+    @Override
+    public boolean deleteBlockWhitelists(List<BlockWhitelist> bws, Town town) {
+        return true;
+    }
+
     @Override
     public boolean deleteSelectedTown(Resident res) {
         return false;
@@ -10,6 +10,7 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.server.MinecraftServer;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
 import java.util.UUID;
 
 public abstract class MyTownDatasource {
@@ -103,6 +104,12 @@ public abstract class MyTownDatasource {
 
     public abstract boolean saveTownBank(Bank bank);
 
+    /**
+     * Updates the banks in a single transaction. Used by the upkeep to update every town at once,
+     * the banks must already be saved.
+     */
+    public abstract boolean saveTownBanks(List<Bank> banks);
+
     public abstract boolean saveSelectedTown(Resident res, Town town);
 
     /* ----- Link ----- */
@@ -148,6 +155,11 @@ public abstract class MyTownDatasource {
 
     public abstract boolean deleteBlockWhitelist(BlockWhitelist bw, Town town);
 
+    /**
+     * Deletes the whitelists of the town in a single transaction.
+     */
+    public abstract boolean deleteBlockWhitelists(List<BlockWhitelist> bws, Town town);
+
     /**
      * Deletes a town that was selected previously
      * Not extremely useful, the selected town is changed when saving another on top
@@ -8,6 +8,7 @@ import myessentials.teleport.Teleport;
 import mytown.entities.*;
 import mytown.entities.flag.Flag;
 import mytown.entities.flag.FlagType;
+import mytown.protection.PermissionCache;
 import mytown.protection.ProtectionUtils;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.tileentity.TileEntity;
@@ -16,6 +17,7 @@ import net.minecraftforge.common.DimensionManager;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
 import java.sql.*;
+import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
 
@@ -740,6 +742,10 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        if (rank.getTown() != null)
+            rank.getTown().residentsMap.invalidateMayor();
+        rank.invalidatePermissions();
+        PermissionCache.instance.invalidate(rank.getTown());
         return true;
     }
 
@@ -758,6 +764,8 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        rank.invalidatePermissions();
+        PermissionCache.instance.invalidate(rank.getTown());
         return true;
     }
 
@@ -841,6 +849,7 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        getUniverse().invalidateSnapshot();
         return true;
     }
 
@@ -897,6 +906,9 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        plot.invalidateFlags();
+        getUniverse().invalidateSnapshot();
+        PermissionCache.instance.invalidate(plot);
         return true;
     }
 
@@ -927,6 +939,9 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        town.invalidateFlags();
+        getUniverse().invalidateSnapshot();
+        PermissionCache.instance.invalidate(town);
         return true;
     }
 
@@ -1072,6 +1087,38 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
         return true;
     }
 
+    @Override
+    public boolean saveTownBanks(List<Bank> banks) {
+        LOG.debug("Saving {} town banks", banks.size());
+        try {
+            try {
+                getConnection().setAutoCommit(false);
+
+                PreparedStatement s = prepare("UPDATE " + prefix + "TownBanks SET amount=?, daysNotPaid=? WHERE townName=?", false);
+                for (Bank bank : banks) {
+                    s.setInt(1, bank.getAmount());
+                    s.setInt(2, bank.getDaysNotPaid());
+                    s.setString(3, bank.getTown().getName());
+                    s.addBatch();
+                }
+                s.executeBatch();
+            } catch (SQLException e) {
+                LOG.error("Failed to update the town banks.");
+                LOG.error(ExceptionUtils.getStackTrace(e));
+                getConnection().rollback();
+
+                return false;
+            } finally {
+                getConnection().setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOG.error("Failed to save the town banks.");
+            LOG.error(ExceptionUtils.getStackTrace(e));
+            return false;
+        }
+        return true;
+    }
+
     /* ----- Link ----- */
 
     @Override
@@ -1091,6 +1138,7 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        PermissionCache.instance.invalidate(res);
         return true;
     }
 
@@ -1109,6 +1157,7 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        PermissionCache.instance.invalidate(res);
         return true;
     }
 
@@ -1127,6 +1176,7 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        PermissionCache.instance.invalidate(res);
         return true;
     }
 
@@ -1199,6 +1249,8 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        plot.invalidateOwners();
+        PermissionCache.instance.invalidate(plot);
         return true;
     }
 
@@ -1218,6 +1270,8 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        plot.invalidateOwners();
+        PermissionCache.instance.invalidate(plot);
         return true;
     }
 
@@ -1235,6 +1289,8 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        plot.invalidateOwners();
+        PermissionCache.instance.invalidate(plot);
         return true;
     }
 
@@ -1272,6 +1328,7 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        PermissionCache.instance.invalidate(town);
 
         return true;
     }
@@ -1320,6 +1377,7 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        PermissionCache.instance.invalidate(rank.getTown());
 
         return true;
     }
@@ -1339,6 +1397,7 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        PermissionCache.instance.invalidate(resident);
         return true;
     }
 
@@ -1358,6 +1417,7 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        PermissionCache.instance.invalidate(plot);
         return true;
     }
 
@@ -1397,6 +1457,38 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
         return true;
     }
 
+    @Override
+    public boolean deleteBlockWhitelists(List<BlockWhitelist> bws, Town town) {
+        try {
+            try {
+                getConnection().setAutoCommit(false);
+
+                PreparedStatement deleteStatement = prepare("DELETE FROM " + prefix + "BlockWhitelists WHERE ID=?", false);
+                for (BlockWhitelist bw : bws) {
+                    deleteStatement.setInt(1, bw.getDbID());
+                    deleteStatement.addBatch();
+                }
+                deleteStatement.executeBatch();
+            } catch (SQLException e) {
+                LOG.error("Failed to delete {} BlockWhitelists of town {}!", bws.size(), town.getName());
+                LOG.error(ExceptionUtils.getStackTrace(e));
+                getConnection().rollback();
+
+                return false;
+            } finally {
+                getConnection().setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOG.error("Failed to delete BlockWhitelists!");
+            LOG.error(ExceptionUtils.getStackTrace(e));
+            return false;
+        }
+        for (BlockWhitelist bw : bws) {
+            town.blockWhitelistsContainer.remove(bw);
+        }
+        return true;
+    }
+
     @Override
     public boolean deleteSelectedTown(Resident res) {
         try {
@@ -1445,6 +1537,9 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        town.invalidateFlags();
+        getUniverse().invalidateSnapshot();
+        PermissionCache.instance.invalidate(town);
         return true;
     }
 
@@ -1462,6 +1557,9 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        plot.invalidateFlags();
+        getUniverse().invalidateSnapshot();
+        PermissionCache.instance.invalidate(plot);
         return true;
     }
 
@@ -1495,6 +1593,8 @@ public abstract class MyTownDatasourceSQL extends MyTownDatasource {
             LOG.error(ExceptionUtils.getStackTrace(e));
             return false;
         }
+        rank.invalidatePermissions();
+        PermissionCache.instance.invalidate(rank.getTown());
         return true;
     }
 
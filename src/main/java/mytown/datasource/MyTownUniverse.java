@@ -11,6 +11,7 @@ import mytown.config.Config;
 import mytown.entities.*;
 import mytown.entities.flag.Flag;
 import mytown.entities.flag.FlagType;
+import mytown.handlers.UpkeepHandler;
 import mytown.handlers.VisualsHandler;
 import mytown.proxies.DatasourceProxy;
 import mytown.util.exceptions.MyTownCommandException;
@@ -22,6 +23,7 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.World;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -33,11 +35,21 @@ public class MyTownUniverse { // TODO Allow migrating between different Datasour
     public final TownsContainer towns = new TownsContainer();
     //public final Map<String, Nation> nations = new HashMap<String, Nation>();
     public final TownBlocksContainer blocks = new TownBlocksContainer();
+    public final ClaimsBitmap claims = new ClaimsBitmap();
     public final PlotsContainer plots = new PlotsContainer();
     public final RanksContainer ranks = new RanksContainer();
     public final BanksContainer banks = new BanksContainer();
     public final List<Integer> worlds = new ArrayList<Integer>();
 
+    private volatile UniverseSnapshot snapshot = UniverseSnapshot.EMPTY;
+    private boolean snapshotDirty = false;
+
+    /**
+     * Incremented whenever a block or plot is added or removed or any flag changes,
+     * so that cached player locations and mob policies get resolved again.
+     */
+    private int locationVersion = 0;
+
     public MyTownUniverse() {
 
     }
@@ -208,7 +220,14 @@ public class MyTownUniverse { // TODO Allow migrating between different Datasour
     }
 
     public Resident getOrMakeResident(EntityPlayer player) {
-        return getOrMakeResident(player.getPersistentID(), player.getDisplayName());
+        Resident res = ResidentProperties.get(player);
+        if (res == null) {
+            res = getOrMakeResident(player.getPersistentID(), player.getDisplayName());
+            if (res != null) {
+                ResidentProperties.attach(player, res);
+            }
+        }
+        return res;
     }
 
     public Resident getOrMakeResident(Entity e) {
@@ -242,6 +261,7 @@ public class MyTownUniverse { // TODO Allow migrating between different Datasour
 
         CommandCompletion.addCompletion("townCompletion", newName);
         CommandCompletion.addCompletion("townCompletionAndAll", newName);
+        snapshotDirty = true;
     }
 
     /* ----- Add Entity ----- */
@@ -255,6 +275,7 @@ public class MyTownUniverse { // TODO Allow migrating between different Datasour
         towns.add(town);
         CommandCompletion.addCompletion("townCompletionAndAll", town.getName());
         CommandCompletion.addCompletion("townCompletion", town.getName());
+        snapshotDirty = true;
     }
 
     /*
@@ -266,6 +287,9 @@ public class MyTownUniverse { // TODO Allow migrating between different Datasour
 
     public final void addTownBlock(TownBlock block) {
         blocks.add(block);
+        claims.set(block.getDim(), block.getX(), block.getZ());
+        snapshotDirty = true;
+        locationVersion++;
     }
 
     public final void addRank(Rank rank) {
@@ -285,6 +309,8 @@ public class MyTownUniverse { // TODO Allow migrating between different Datasour
         plots.add(plot);
         plot.checkForSellSign();
         CommandCompletion.addCompletion("plotCompletion", plot.getName());
+        snapshotDirty = true;
+        locationVersion++;
     }
 
     public final void addBank(Bank bank) {
@@ -300,14 +326,19 @@ public class MyTownUniverse { // TODO Allow migrating between different Datasour
 
     public final void removeResident(Resident res) {
         residents.remove(res);
+        if (res.getPlayer() != null) {
+            ResidentProperties.detach(res.getPlayer());
+        }
         CommandCompletion.removeCompletion("residentCompletion", res.getPlayerName());
     }
 
     public final void removeTown(Town town) {
         towns.remove(town);
         VisualsHandler.instance.unmarkBlocks(town);
+        UpkeepHandler.instance.removeTown(town);
         CommandCompletion.removeCompletion("townCompletionAndAll", town.getName());
         CommandCompletion.removeCompletion("townCompletion", town.getName());
+        snapshotDirty = true;
     }
 
     /*
@@ -318,6 +349,11 @@ public class MyTownUniverse { // TODO Allow migrating between different Datasour
 
     public final void removeTownBlock(TownBlock block) {
         blocks.remove(block);
+        if (!blocks.contains(block.getDim(), block.getX(), block.getZ())) {
+            claims.clear(block.getDim(), block.getX(), block.getZ());
+        }
+        snapshotDirty = true;
+        locationVersion++;
     }
 
     public final void removeRank(Rank rank) {
@@ -337,12 +373,122 @@ public class MyTownUniverse { // TODO Allow migrating between different Datasour
             CommandCompletion.removeCompletion("plotCompletion", plot.getName());
 
         VisualsHandler.instance.unmarkBlocks(plot);
+        snapshotDirty = true;
+        locationVersion++;
     }
 
     public final void removeWorld(int dim) {
         worlds.remove((Integer) dim);
     }
 
+    public final int getLocationVersion() {
+        return locationVersion;
+    }
+
+    /**
+     * Marks everything resolved from the blocks, plots and flags as outdated, for changes done outside of the universe.
+     */
+    public final void invalidateLocations() {
+        locationVersion++;
+    }
+
+    /* ----- Snapshots ----- */
+
+    /**
+     * Gets the last published snapshot of the towns, blocks, plots and flags. Safe to call from any thread.
+     */
+    public final UniverseSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Marks the snapshot as outdated, for changes done outside of the universe, like flag values.
+     */
+    public final void invalidateSnapshot() {
+        snapshotDirty = true;
+    }
+
+    /**
+     * Publishes a new snapshot if anything changed since the last one. Called on the server thread after each tick.
+     */
+    public final void publishSnapshot() {
+        if (snapshotDirty) {
+            snapshotDirty = false;
+            snapshot = UniverseSnapshot.of(this, snapshot.getVersion() + 1);
+        }
+    }
+
+    /* ----- Spatial queries ----- */
+
+    /**
+     * Gets the distinct towns that claimed any chunk overlapping the range (in blocks) around the position.
+     * Steps by chunk and skips unclaimed chunks through the claims bitmap.
+     */
+    public final List<Town> getTownsInRange(int dim, int x, int z, int rangeX, int rangeZ) {
+        int minChunkX = (x - rangeX) >> 4;
+        int minChunkZ = (z - rangeZ) >> 4;
+        int maxChunkX = (x + rangeX) >> 4;
+        int maxChunkZ = (z + rangeZ) >> 4;
+        if (!claims.isAnyClaimed(dim, minChunkX, minChunkZ, maxChunkX, maxChunkZ)) {
+            return Collections.emptyList();
+        }
+
+        List<Town> result = new ArrayList<Town>(2);
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (!claims.isClaimed(dim, chunkX, chunkZ)) {
+                    continue;
+                }
+                TownBlock block = blocks.get(dim, chunkX, chunkZ);
+                if (block != null && !result.contains(block.getTown())) {
+                    result.add(block.getTown());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the closest town, within the radius (in chunks) around the chunk, that doesn't allow other towns nearby.
+     * Searches outwards in square rings so the first town found is the closest one, and skips any ring without
+     * claims through the claims bitmap. The ignored town is never returned, it can be null.
+     */
+    public final Town getClosestBlockingTown(int dim, int chunkX, int chunkZ, int radius, Town ignored) {
+        if (!claims.isAnyClaimedNear(dim, chunkX, chunkZ, radius)) {
+            return null;
+        }
+
+        Town town = getBlockingTownInBox(dim, chunkX, chunkZ, chunkX, chunkZ, ignored);
+        for (int r = 1; town == null && r <= radius; r++) {
+            town = getBlockingTownInBox(dim, chunkX - r, chunkZ - r, chunkX + r, chunkZ - r, ignored);
+            if (town == null)
+                town = getBlockingTownInBox(dim, chunkX - r, chunkZ + r, chunkX + r, chunkZ + r, ignored);
+            if (town == null)
+                town = getBlockingTownInBox(dim, chunkX - r, chunkZ - r + 1, chunkX - r, chunkZ + r - 1, ignored);
+            if (town == null)
+                town = getBlockingTownInBox(dim, chunkX + r, chunkZ - r + 1, chunkX + r, chunkZ + r - 1, ignored);
+        }
+        return town;
+    }
+
+    private Town getBlockingTownInBox(int dim, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, Town ignored) {
+        if (!claims.isAnyClaimed(dim, minChunkX, minChunkZ, maxChunkX, maxChunkZ)) {
+            return null;
+        }
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (!claims.isClaimed(dim, chunkX, chunkZ)) {
+                    continue;
+                }
+                TownBlock block = blocks.get(dim, chunkX, chunkZ);
+                if (block != null && block.getTown() != ignored && !block.getTown().getEffectiveFlags().getBoolean(FlagType.NEARBY)) {
+                    return block.getTown();
+                }
+            }
+        }
+        return null;
+    }
+
     /* ----- Utils ----- */
     private MyTownDatasource getDatasource() {
         return DatasourceProxy.getDatasource();
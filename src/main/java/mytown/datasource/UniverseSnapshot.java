@@ -0,0 +1,237 @@
+package mytown.datasource;
+
+import mytown.api.container.FlagsContainer;
+import mytown.entities.Plot;
+import mytown.entities.Town;
+import mytown.entities.TownBlock;
+import mytown.entities.flag.Flag;
+import mytown.entities.flag.FlagType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of the towns, their blocks, plots and flags at a point in time.
+ * Published by the MyTownUniverse on the server thread, safe to read from any thread without locking.
+ */
+public final class UniverseSnapshot {
+
+    public static final UniverseSnapshot EMPTY = new UniverseSnapshot(0, Collections.<TownData>emptyList());
+
+    private final long version;
+    private final List<TownData> towns;
+    private final Map<String, TownData> townsByName;
+
+    private UniverseSnapshot(long version, List<TownData> towns) {
+        this.version = version;
+        this.towns = towns;
+
+        Map<String, TownData> byName = new HashMap<String, TownData>();
+        for (TownData town : towns) {
+            byName.put(town.getName(), town);
+        }
+        this.townsByName = Collections.unmodifiableMap(byName);
+    }
+
+    /**
+     * Copies the current state of the universe. Must be called on the server thread.
+     */
+    static UniverseSnapshot of(MyTownUniverse universe, long version) {
+        Map<Town, List<BlockData>> blocksByTown = new HashMap<Town, List<BlockData>>();
+        for (TownBlock block : universe.blocks) {
+            List<BlockData> blocks = blocksByTown.get(block.getTown());
+            if (blocks == null) {
+                blocks = new ArrayList<BlockData>();
+                blocksByTown.put(block.getTown(), blocks);
+            }
+            blocks.add(new BlockData(block.getDim(), block.getX(), block.getZ(), block.getTown().getName()));
+        }
+
+        Map<Town, List<PlotData>> plotsByTown = new HashMap<Town, List<PlotData>>();
+        for (Plot plot : universe.plots) {
+            List<PlotData> plots = plotsByTown.get(plot.getTown());
+            if (plots == null) {
+                plots = new ArrayList<PlotData>();
+                plotsByTown.put(plot.getTown(), plots);
+            }
+            plots.add(new PlotData(plot));
+        }
+
+        List<TownData> towns = new ArrayList<TownData>(universe.towns.size());
+        for (Town town : universe.towns) {
+            towns.add(new TownData(town.getName(), copyFlags(town.flagsContainer), unmodifiable(blocksByTown.get(town)), unmodifiable(plotsByTown.get(town))));
+        }
+        return new UniverseSnapshot(version, Collections.unmodifiableList(towns));
+    }
+
+    /**
+     * Incremented every time a new snapshot is published.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public List<TownData> getTowns() {
+        return towns;
+    }
+
+    public TownData getTown(String name) {
+        return townsByName.get(name);
+    }
+
+    private static Map<FlagType, Object> copyFlags(FlagsContainer flagsContainer) {
+        Map<FlagType, Object> flags = new EnumMap<FlagType, Object>(FlagType.class);
+        for (Flag flag : flagsContainer) {
+            flags.put(flag.getFlagType(), flag.getValue());
+        }
+        return Collections.unmodifiableMap(flags);
+    }
+
+    private static <T> List<T> unmodifiable(List<T> list) {
+        return list == null ? Collections.<T>emptyList() : Collections.unmodifiableList(list);
+    }
+
+    public static final class TownData {
+        private final String name;
+        private final Map<FlagType, Object> flags;
+        private final List<BlockData> blocks;
+        private final List<PlotData> plots;
+
+        private TownData(String name, Map<FlagType, Object> flags, List<BlockData> blocks, List<PlotData> plots) {
+            this.name = name;
+            this.flags = flags;
+            this.blocks = blocks;
+            this.plots = plots;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the value of the flag, or the default value if the town doesn't have it.
+         */
+        public Object getFlagValue(FlagType type) {
+            Object value = flags.get(type);
+            return value == null ? type.getDefaultValue() : value;
+        }
+
+        public Map<FlagType, Object> getFlags() {
+            return flags;
+        }
+
+        public List<BlockData> getBlocks() {
+            return blocks;
+        }
+
+        public List<PlotData> getPlots() {
+            return plots;
+        }
+    }
+
+    public static final class BlockData {
+        private final int dim, x, z;
+        private final String townName;
+
+        private BlockData(int dim, int x, int z, String townName) {
+            this.dim = dim;
+            this.x = x;
+            this.z = z;
+            this.townName = townName;
+        }
+
+        public int getDim() {
+            return dim;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getZ() {
+            return z;
+        }
+
+        public String getTownName() {
+            return townName;
+        }
+    }
+
+    public static final class PlotData {
+        private final int dbID;
+        private final String name;
+        private final String townName;
+        private final int dim, x1, y1, z1, x2, y2, z2;
+        private final Map<FlagType, Object> flags;
+
+        private PlotData(Plot plot) {
+            this.dbID = plot.getDbID();
+            this.name = plot.getName();
+            this.townName = plot.getTown().getName();
+            this.dim = plot.getDim();
+            this.x1 = plot.getStartX();
+            this.y1 = plot.getStartY();
+            this.z1 = plot.getStartZ();
+            this.x2 = plot.getEndX();
+            this.y2 = plot.getEndY();
+            this.z2 = plot.getEndZ();
+            this.flags = copyFlags(plot.flagsContainer);
+        }
+
+        public int getDbID() {
+            return dbID;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTownName() {
+            return townName;
+        }
+
+        public int getDim() {
+            return dim;
+        }
+
+        public int getStartX() {
+            return x1;
+        }
+
+        public int getStartY() {
+            return y1;
+        }
+
+        public int getStartZ() {
+            return z1;
+        }
+
+        public int getEndX() {
+            return x2;
+        }
+
+        public int getEndY() {
+            return y2;
+        }
+
+        public int getEndZ() {
+            return z2;
+        }
+
+        /**
+         * Gets the value of the flag, or the default value if the plot doesn't have it.
+         */
+        public Object getFlagValue(FlagType type) {
+            Object value = flags.get(type);
+            return value == null ? type.getDefaultValue() : value;
+        }
+
+        public Map<FlagType, Object> getFlags() {
+            return flags;
+        }
+    }
+}
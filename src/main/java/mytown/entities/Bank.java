@@ -22,14 +22,18 @@ public class Bank {
         return false;
     }
 
-    public void payUpkeep() {
+    /**
+     * Pays the daily upkeep and returns the message the residents of the town should get.
+     * Doesn't save the bank.
+     */
+    public String payUpkeep() {
         int amount = getNextPaymentAmount();
         if(makePayment(amount)) {
             daysNotPaid = 0;
-            town.notifyEveryone(MyTown.instance.LOCAL.getLocalization("mytown.notification.town.upkeep"));
+            return MyTown.instance.LOCAL.getLocalization("mytown.notification.town.upkeep");
         } else {
             daysNotPaid++;
-            town.notifyEveryone(MyTown.instance.LOCAL.getLocalization("mytown.notification.town.upkeep.failed", Config.upkeepTownDeletionDays - daysNotPaid));
+            return MyTown.instance.LOCAL.getLocalization("mytown.notification.town.upkeep.failed", Config.upkeepTownDeletionDays - daysNotPaid);
         }
     }
 
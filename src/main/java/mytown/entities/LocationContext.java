@@ -0,0 +1,92 @@
+package mytown.entities;
+
+import mytown.datasource.MyTownUniverse;
+import mytown.entities.flag.EffectiveFlags;
+import mytown.entities.flag.FlagType;
+
+/**
+ * The town block, town, plot and flags at the position of something a resident is doing.
+ * Resolved by the resident for each protection event, reusing the town block of the player's
+ * current location when the position is in the chunk the player is standing in.
+ */
+public class LocationContext {
+
+    private int dim, x, y, z;
+    private TownBlock block;
+    private Plot plot;
+
+    void resolve(PlayerMovement movement, int dim, int x, int y, int z) {
+        this.dim = dim;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+
+        MyTownUniverse universe = MyTownUniverse.instance;
+        if (movement.isInChunk(dim, x >> 4, z >> 4) && movement.getLocationVersion() == universe.getLocationVersion()) {
+            block = movement.getBlock();
+        } else {
+            block = universe.claims.isClaimed(dim, x >> 4, z >> 4) ? universe.blocks.get(dim, x >> 4, z >> 4) : null;
+        }
+        plot = block == null || block.plotsContainer.isEmpty() ? null : block.plotsContainer.get(dim, x, y, z);
+    }
+
+    public boolean isWild() {
+        return block == null;
+    }
+
+    public TownBlock getBlock() {
+        return block;
+    }
+
+    public Town getTown() {
+        return block == null ? null : block.getTown();
+    }
+
+    public Plot getPlot() {
+        return plot;
+    }
+
+    /**
+     * Gets the flags of the plot, or of the town if there's no plot. Null in the wild.
+     */
+    public EffectiveFlags getFlags() {
+        if (plot != null) {
+            return plot.getEffectiveFlags();
+        }
+        return block == null ? null : block.getTown().getEffectiveFlags();
+    }
+
+    public boolean getBoolean(FlagType flagType) {
+        return block == null ? Wild.instance.flagsContainer.getBoolean(flagType) : getFlags().getBoolean(flagType);
+    }
+
+    public boolean hasPermission(Resident res, FlagType flagType, Object denialValue) {
+        if (plot != null) {
+            return plot.hasPermission(res, flagType, denialValue);
+        }
+        return block == null ? Wild.instance.hasPermission(res, flagType, denialValue) : block.getTown().hasPermission(res, flagType, denialValue);
+    }
+
+    /**
+     * Formats the owners of the plot, or the mayor of the town. Only meaningful outside of the wild.
+     */
+    public String formatOwners() {
+        return block == null ? null : block.getTown().formatOwners(plot);
+    }
+
+    public int getDim() {
+        return dim;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getZ() {
+        return z;
+    }
+}
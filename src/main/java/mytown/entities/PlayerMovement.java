@@ -0,0 +1,91 @@
+package mytown.entities;
+
+/**
+ * Where the player of a resident was during the last tick, updated in place by the protections.
+ * The town block and plot are only resolved again when the player crosses a chunk or plot boundary.
+ */
+public class PlayerMovement {
+
+    private boolean known = false;
+    private double x, y, z;
+    private int dim, chunkX, chunkZ;
+    private TownBlock block;
+    private Plot plot;
+    private int locationVersion;
+
+    /**
+     * Checks if the player was in the given chunk last tick.
+     */
+    public boolean isInChunk(int dim, int chunkX, int chunkZ) {
+        return known && this.dim == dim && this.chunkX == chunkX && this.chunkZ == chunkZ;
+    }
+
+    public void update(double x, double y, double z, int dim) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.dim = dim;
+        this.chunkX = ((int) Math.floor(x)) >> 4;
+        this.chunkZ = ((int) Math.floor(z)) >> 4;
+        this.known = true;
+    }
+
+    /**
+     * Updates the position along with the block and plot resolved at the given location version of the universe.
+     */
+    public void update(double x, double y, double z, int dim, TownBlock block, Plot plot, int locationVersion) {
+        update(x, y, z, dim);
+        this.block = block;
+        this.plot = plot;
+        this.locationVersion = locationVersion;
+    }
+
+    /**
+     * Forgets the last location, the next check will be done as if the player just logged in.
+     */
+    public void reset() {
+        known = false;
+        block = null;
+        plot = null;
+    }
+
+    public boolean isKnown() {
+        return known;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public int getDim() {
+        return dim;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    public TownBlock getBlock() {
+        return block;
+    }
+
+    public Plot getPlot() {
+        return plot;
+    }
+
+    public int getLocationVersion() {
+        return locationVersion;
+    }
+}
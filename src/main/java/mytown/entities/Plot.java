@@ -1,13 +1,17 @@
 package mytown.entities;
 
 import myessentials.entities.Volume;
-import myessentials.utils.PlayerUtils;
 import mytown.api.container.FlagsContainer;
 import mytown.api.container.GenericContainer;
 import mytown.api.container.ResidentsContainer;
+import mytown.datasource.MyTownUniverse;
 import mytown.entities.blocks.SellSign;
+import mytown.entities.flag.EffectiveFlags;
 import mytown.entities.flag.FlagType;
+import mytown.protection.PermissionCache;
+import mytown.protection.PermissionNodeCache;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.EnumChatFormatting;
 import net.minecraft.world.World;
 
 public class Plot {
@@ -21,6 +25,9 @@ public class Plot {
     public final ResidentsContainer ownersContainer = new ResidentsContainer();
     public final GenericContainer<SellSign> signContainer = new GenericContainer<SellSign>();
 
+    private EffectiveFlags effectiveFlags;
+    private String formattedOwners;
+
     public Plot(String name, Town town, int dim, int x1, int y1, int z1, int x2, int y2, int z2) {
         if (x1 > x2) {
             int aux = x2;
@@ -58,7 +65,53 @@ public class Plot {
     }
 
     public boolean hasPermission(Resident res, FlagType flagType, Object denialValue) {
-        return !flagsContainer.getValue(flagType).equals(denialValue) || membersContainer.contains(res) || ownersContainer.contains(res) || PlayerUtils.isOp(res.getPlayer());
+        Boolean cached = PermissionCache.instance.get(res, this, flagType, denialValue);
+        if (cached != null) {
+            return cached;
+        }
+        boolean result = !getEffectiveFlags().hasValue(flagType, denialValue) || membersContainer.contains(res) || ownersContainer.contains(res) || PermissionNodeCache.instance.isOp(res.getUUID());
+        PermissionCache.instance.put(res, this, flagType, denialValue, result);
+        return result;
+    }
+
+    /**
+     * Gets the compiled values of all the flags in this plot, merged over the town's.
+     */
+    public EffectiveFlags getEffectiveFlags() {
+        if (effectiveFlags == null) {
+            effectiveFlags = new EffectiveFlags(flagsContainer, town.getEffectiveFlags());
+        }
+        return effectiveFlags;
+    }
+
+    public void invalidateFlags() {
+        effectiveFlags = null;
+        MyTownUniverse.instance.invalidateLocations();
+    }
+
+    /**
+     * Gets the names of the owners of this plot, as shown when a protection denies something.
+     */
+    public String formatOwners() {
+        if (formattedOwners == null) {
+            String formattedList = "";
+            for (Resident r : ownersContainer) {
+                if (formattedList.equals("")) {
+                    formattedList = r.getPlayerName();
+                } else {
+                    formattedList += ", " + r.getPlayerName();
+                }
+            }
+            if (formattedList.equals("")) {
+                formattedList = EnumChatFormatting.RED + "SERVER ADMINS";
+            }
+            formattedOwners = formattedList;
+        }
+        return formattedOwners;
+    }
+
+    public void invalidateOwners() {
+        formattedOwners = null;
     }
 
     public void checkForSellSign() {
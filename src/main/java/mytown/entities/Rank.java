@@ -1,7 +1,9 @@
 package mytown.entities;
 
 import mypermissions.api.container.PermissionsContainer;
+import mypermissions.api.entities.PermissionLevel;
 import mytown.api.container.RanksContainer;
+import mytown.entities.flag.FlagType;
 import net.minecraft.util.EnumChatFormatting;
 
 public class Rank {
@@ -42,6 +44,12 @@ public class Rank {
 
     public final PermissionsContainer permissionsContainer = new PermissionsContainer();
 
+    /**
+     * Bitset over the FlagType ordinals of the flag bypass permissions this rank is allowed, compiled on demand.
+     */
+    private long flagBypasses;
+    private boolean permissionsCompiled = false;
+
     public Rank(String name, Town town, Type type) {
         this.name = name;
         this.town = town;
@@ -65,6 +73,34 @@ public class Rank {
         return this.newName;
     }
 
+    /**
+     * Checks if this rank is allowed the bypass permission of the flag, without evaluating the permission nodes.
+     */
+    public boolean hasFlagBypass(FlagType flagType) {
+        if (!permissionsCompiled) {
+            compilePermissions();
+        }
+        return (flagBypasses & (1L << flagType.ordinal())) != 0;
+    }
+
+    /**
+     * Marks the compiled permissions as outdated. Called whenever the rank's permissions are saved.
+     */
+    public void invalidatePermissions() {
+        permissionsCompiled = false;
+    }
+
+    private void compilePermissions() {
+        long bypasses = 0;
+        for (FlagType flagType : FlagType.values()) {
+            if (permissionsContainer.hasPermission(flagType.getBypassPermission()) == PermissionLevel.ALLOWED) {
+                bypasses |= 1L << flagType.ordinal();
+            }
+        }
+        flagBypasses = bypasses;
+        permissionsCompiled = true;
+    }
+
     public Town getTown() {
         return town;
     }
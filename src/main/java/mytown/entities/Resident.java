@@ -9,9 +9,12 @@ import mytown.config.Config;
 import mytown.datasource.MyTownUniverse;
 import mytown.entities.flag.FlagType;
 import mytown.entities.tools.Tool;
+import mytown.handlers.Scheduler;
+import mytown.util.Formatter;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.init.Blocks;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.ChunkCoordinates;
 import net.minecraftforge.common.util.FakePlayer;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -26,10 +29,24 @@ public class Resident {
     private Date joinDate = new Date();
     private Date lastOnline = new Date();
 
-    private int teleportCooldown = 0;
+    /**
+     * The server tick at which the resident can teleport again.
+     */
+    private int teleportCooldownExpiry = 0;
 
     private int extraBlocks = 0;
 
+    /**
+     * The last protection denial sent for each flag, used to merge repeated denials.
+     */
+    private final Denial[] denials = new Denial[FlagType.values().length];
+
+    /**
+     * Where the player was last tick, reset when the player logs out.
+     */
+    private final PlayerMovement movement = new PlayerMovement();
+    private final LocationContext location = new LocationContext();
+
     public final PlotsContainer plotsContainer = new PlotsContainer(Config.defaultMaxPlots);
     public final TownsContainer townInvitesContainer = new TownsContainer();
     public final TownsContainer townsContainer = new TownsContainer();
@@ -51,14 +68,6 @@ public class Resident {
         this.lastOnline.setTime(lastOnline * 1000L);
     }
 
-    /**
-     * Tick function called every tick
-     */
-    public void tick() {
-        if(teleportCooldown > 0)
-            teleportCooldown--;
-    }
-
     /* ----- Map ----- */
 
     /**
@@ -113,12 +122,91 @@ public class Resident {
     }
 
     /**
-     * Sends a localized message and a list of owners to which the protection was bypassed
+     * Sends a localized message and the owners of the plot or town at the location
+     */
+    public void protectionDenial(FlagType flag, LocationContext location) {
+        if (location.isWild()) {
+            protectionDenial(flag);
+            return;
+        }
+        protectionDenial(flag, location.getPlot() == null ? location.getTown() : location.getPlot(), location.formatOwners());
+    }
+
+    /**
+     * Sends a localized message and the owners of the plot or town at the position in the town
+     */
+    public void protectionDenial(FlagType flag, Town town, int dim, int x, int y, int z) {
+        Plot plot = town.getPlotAtCoords(dim, x, y, z);
+        protectionDenial(flag, plot == null ? town : plot, town.formatOwners(dim, x, y, z));
+    }
+
+    /**
+     * Sends a localized message and the mayor of the town
      */
-    public void protectionDenial(FlagType flag, String owners) {
-        if (getPlayer() != null) {
-            ChatUtils.sendChat(getPlayer(), flag.getLocalizedProtectionDenial());
-            ChatUtils.sendChat(getPlayer(), MyTown.instance.LOCAL.getLocalization("mytown.notification.town.owners", owners));
+    public void protectionDenial(FlagType flag, Town town) {
+        protectionDenial(flag, town, Formatter.formatOwnersToString(town));
+    }
+
+    /**
+     * Sends a localized message and a list of owners to which the protection was bypassed.
+     * Repeated denials are counted per flag and per town or plot, the owners are only shown.
+     */
+    private void protectionDenial(FlagType flag, Object location, String owners) {
+        if (getPlayer() == null || isDenialRepeated(flag, location)) {
+            return;
+        }
+        ChatUtils.sendChat(getPlayer(), flag.getLocalizedProtectionDenial());
+        ChatUtils.sendChat(getPlayer(), MyTown.instance.LOCAL.getLocalization("mytown.notification.town.owners", owners));
+    }
+
+    /**
+     * Sends a localized message for a protection denied in the wild
+     */
+    public void protectionDenial(FlagType flag) {
+        if (getPlayer() == null || isDenialRepeated(flag, null)) {
+            return;
+        }
+        sendMessage(flag.getLocalizedProtectionDenial());
+    }
+
+    /**
+     * Checks if the same denial was already sent recently, in which case it's only counted.
+     * The count is sent as a single message once the cooldown runs out.
+     */
+    private boolean isDenialRepeated(final FlagType flag, Object location) {
+        int tick = MinecraftServer.getServer().getTickCounter();
+        Denial denial = denials[flag.ordinal()];
+        if (denial != null) {
+            if (tick - denial.lastSent < Config.denialMessageCooldown && location == denial.location) {
+                denial.count++;
+                return true;
+            }
+            sendRepeatedDenials(flag, denial);
+        }
+        final Denial newDenial = new Denial(location, tick);
+        denials[flag.ordinal()] = newDenial;
+        Scheduler.instance.schedule(Config.denialMessageCooldown, new Runnable() {
+            @Override
+            public void run() {
+                flushDenial(flag, newDenial);
+            }
+        });
+        return false;
+    }
+
+    /**
+     * Sends the count of the denial once its cooldown ran out, unless it was already replaced.
+     */
+    private void flushDenial(FlagType flag, Denial denial) {
+        if (denials[flag.ordinal()] == denial) {
+            sendRepeatedDenials(flag, denial);
+            denials[flag.ordinal()] = null;
+        }
+    }
+
+    private void sendRepeatedDenials(FlagType flag, Denial denial) {
+        if (denial.count > 0) {
+            sendMessage(MyTown.instance.LOCAL.getLocalization("mytown.notification.protection.repeated", flag.getLocalizedProtectionDenial(), denial.count));
         }
     }
 
@@ -179,6 +267,19 @@ public class Resident {
         this.playerName = pl.getDisplayName();
     }
 
+    public PlayerMovement getMovement() {
+        return movement;
+    }
+
+    /**
+     * Resolves the location of something the player is doing, reusing the player's current location
+     * when the position is in the same chunk. The returned context is overwritten by the next call.
+     */
+    public LocationContext getLocation(int dim, int x, int y, int z) {
+        location.resolve(movement, dim, x, y, z);
+        return location;
+    }
+
     public UUID getUUID() {
         return playerUUID;
     }
@@ -207,11 +308,14 @@ public class Resident {
     }
 
     public void setTeleportCooldown(int cooldownTicks) {
-        this.teleportCooldown = cooldownTicks;
+        this.teleportCooldownExpiry = MinecraftServer.getServer().getTickCounter() + cooldownTicks;
     }
 
+    /**
+     * Gets the amount of ticks left until the resident can teleport again.
+     */
     public int getTeleportCooldown() {
-        return teleportCooldown;
+        return Math.max(0, teleportCooldownExpiry - MinecraftServer.getServer().getTickCounter());
     }
 
     public int getExtraBlocks() {
@@ -221,4 +325,18 @@ public class Resident {
     public void setExtraBlocks(int extraBlocks) {
         this.extraBlocks = extraBlocks;
     }
+
+    private static class Denial {
+        /**
+         * The town or plot where it was denied, null in the wild
+         */
+        private final Object location;
+        private final int lastSent;
+        private int count = 0;
+
+        private Denial(Object location, int lastSent) {
+            this.location = location;
+            this.lastSent = lastSent;
+        }
+    }
 }
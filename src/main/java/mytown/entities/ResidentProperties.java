@@ -0,0 +1,58 @@
+package mytown.entities;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+import net.minecraftforge.common.IExtendedEntityProperties;
+
+/**
+ * Attaches the Resident to its player entity so that event handlers don't need to search for it.
+ * Nothing is saved, the link is recreated the first time the player is looked up.
+ */
+public class ResidentProperties implements IExtendedEntityProperties {
+
+    public static final String NAME = "MyTownResident";
+
+    private Resident resident;
+
+    public ResidentProperties(Resident resident) {
+        this.resident = resident;
+    }
+
+    /**
+     * Returns the Resident attached to the player or null if there is none.
+     */
+    public static Resident get(EntityPlayer player) {
+        IExtendedEntityProperties properties = player.getExtendedProperties(NAME);
+        return properties instanceof ResidentProperties ? ((ResidentProperties) properties).resident : null;
+    }
+
+    public static void attach(EntityPlayer player, Resident resident) {
+        IExtendedEntityProperties properties = player.getExtendedProperties(NAME);
+        if (properties instanceof ResidentProperties) {
+            ((ResidentProperties) properties).resident = resident;
+        } else if (properties == null) {
+            player.registerExtendedProperties(NAME, new ResidentProperties(resident));
+        }
+    }
+
+    public static void detach(EntityPlayer player) {
+        IExtendedEntityProperties properties = player.getExtendedProperties(NAME);
+        if (properties instanceof ResidentProperties) {
+            ((ResidentProperties) properties).resident = null;
+        }
+    }
+
+    @Override
+    public void saveNBTData(NBTTagCompound compound) {
+    }
+
+    @Override
+    public void loadNBTData(NBTTagCompound compound) {
+    }
+
+    @Override
+    public void init(Entity entity, World world) {
+    }
+}
@@ -3,11 +3,14 @@ package mytown.entities;
 import myessentials.teleport.Teleport;
 import myessentials.utils.PlayerUtils;
 import mypermissions.api.entities.PermissionLevel;
-import mypermissions.proxies.PermissionProxy;
 import mytown.MyTown;
 import mytown.api.container.*;
 import mytown.config.Config;
+import mytown.datasource.MyTownUniverse;
+import mytown.entities.flag.EffectiveFlags;
 import mytown.entities.flag.FlagType;
+import mytown.protection.PermissionCache;
+import mytown.protection.PermissionNodeCache;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.util.EnumChatFormatting;
@@ -36,6 +39,8 @@ public class Town implements Comparable<Town> {
 
     public final Bank bank = new Bank(this);
 
+    private EffectiveFlags effectiveFlags;
+
     public Town(String name) {
         this.name = name;
     }
@@ -61,7 +66,7 @@ public class Town implements Comparable<Town> {
      */
     @SuppressWarnings("unchecked")
     public boolean hasPermission(Resident res, FlagType flagType, Object denialValue, int dim, int x, int y, int z) {
-        Plot plot = plotsContainer.get(dim, x, y, z);
+        Plot plot = getPlotAtCoords(dim, x, y, z);
 
         if (plot == null) {
             return hasPermission(res, flagType, denialValue);
@@ -74,11 +79,21 @@ public class Town implements Comparable<Town> {
      * Checks if the Resident is allowed to do the action specified by the FlagType in this town.
      */
     public boolean hasPermission(Resident res, FlagType flagType, Object denialValue) {
-        if(PlayerUtils.isOp(res.getUUID())) {
+        Boolean cached = PermissionCache.instance.get(res, this, flagType, denialValue);
+        if (cached != null) {
+            return cached;
+        }
+        boolean result = computePermission(res, flagType, denialValue);
+        PermissionCache.instance.put(res, this, flagType, denialValue, result);
+        return result;
+    }
+
+    private boolean computePermission(Resident res, FlagType flagType, Object denialValue) {
+        if(PermissionNodeCache.instance.isOp(res.getUUID())) {
             return true;
         }
 
-        if(!flagsContainer.getValue(flagType).equals(denialValue)) {
+        if(!getEffectiveFlags().hasValue(flagType, denialValue)) {
             return true;
         }
 
@@ -86,24 +101,24 @@ public class Town implements Comparable<Town> {
         boolean permissionBypass;
 
         if(residentsMap.containsKey(res)) {
-            if((Boolean) flagsContainer.getValue(FlagType.RESTRICTIONS)) {
-                rankBypass = hasPermission(res, FlagType.RESTRICTIONS.getBypassPermission());
-                permissionBypass = PermissionProxy.getPermissionManager().hasPermission(res.getUUID(), FlagType.RESTRICTIONS.getBypassPermission());
+            if(getEffectiveFlags().getBoolean(FlagType.RESTRICTIONS)) {
+                rankBypass = hasFlagBypass(res, FlagType.RESTRICTIONS);
+                permissionBypass = PermissionNodeCache.instance.hasPermission(res.getUUID(), FlagType.RESTRICTIONS.getBypassPermission());
 
                 if(!rankBypass && !permissionBypass) {
                     return false;
                 }
             }
 
-            rankBypass = hasPermission(res, flagType.getBypassPermission());
-            permissionBypass = PermissionProxy.getPermissionManager().hasPermission(res.getUUID(), flagType.getBypassPermission());
+            rankBypass = hasFlagBypass(res, flagType);
+            permissionBypass = PermissionNodeCache.instance.hasPermission(res.getUUID(), flagType.getBypassPermission());
 
             if(!rankBypass && !permissionBypass) {
                 return false;
             }
 
         } else {
-            permissionBypass = PermissionProxy.getPermissionManager().hasPermission(res.getUUID(), flagType.getBypassPermission());
+            permissionBypass = PermissionNodeCache.instance.hasPermission(res.getUUID(), flagType.getBypassPermission());
 
             if(!permissionBypass) {
                 return false;
@@ -113,6 +128,14 @@ public class Town implements Comparable<Town> {
         return true;
     }
 
+    /**
+     * Checks if the Resident's rank is allowed to bypass the flag, using the rank's compiled permissions.
+     */
+    public boolean hasFlagBypass(Resident res, FlagType flagType) {
+        Rank rank = residentsMap.get(res);
+        return rank != null && rank.hasFlagBypass(flagType);
+    }
+
     /**
      * Permission node check for Residents
      */
@@ -125,12 +148,60 @@ public class Town implements Comparable<Town> {
         return rank.permissionsContainer.hasPermission(permission) == PermissionLevel.ALLOWED;
     }
 
+    /**
+     * Gets the plot at the given position by going through the plots of the TownBlock it's in.
+     * Returns null if there is no plot there or the position is not in this town.
+     */
+    public Plot getPlotAtCoords(int dim, int x, int y, int z) {
+        TownBlock block = townBlocksContainer.get(dim, x >> 4, z >> 4);
+        if (block == null) {
+            return null;
+        }
+        return block.plotsContainer.get(dim, x, y, z);
+    }
+
     public Object getValueAtCoords(int dim, int x, int y, int z, FlagType flagType) {
-        Plot plot = plotsContainer.get(dim, x, y, z);
-        if(plot == null || flagType.isTownOnly()) {
-            return flagsContainer.getValue(flagType);
-        } else {
-            return plot.flagsContainer.getValue(flagType);
+        return getEffectiveFlagsAtCoords(dim, x, y, z, flagType).getValue(flagType);
+    }
+
+    public boolean getBooleanAtCoords(int dim, int x, int y, int z, FlagType flagType) {
+        return getEffectiveFlagsAtCoords(dim, x, y, z, flagType).getBoolean(flagType);
+    }
+
+    public String getStringAtCoords(int dim, int x, int y, int z, FlagType flagType) {
+        return getEffectiveFlagsAtCoords(dim, x, y, z, flagType).getString(flagType);
+    }
+
+    /**
+     * Gets the flags that apply at the position, either the plot's or the town's.
+     * Town only flags never need the plot lookup since they are the same everywhere in the town.
+     */
+    public EffectiveFlags getEffectiveFlagsAtCoords(int dim, int x, int y, int z, FlagType flagType) {
+        if(flagType.isTownOnly()) {
+            return getEffectiveFlags();
+        }
+        Plot plot = getPlotAtCoords(dim, x, y, z);
+        return plot == null ? getEffectiveFlags() : plot.getEffectiveFlags();
+    }
+
+    /**
+     * Gets the compiled values of all the flags in this town, compiling them if they changed.
+     */
+    public EffectiveFlags getEffectiveFlags() {
+        if (effectiveFlags == null) {
+            effectiveFlags = new EffectiveFlags(flagsContainer);
+        }
+        return effectiveFlags;
+    }
+
+    /**
+     * Drops the compiled flags of the town and its plots. Called when any of the town's flags is saved or deleted.
+     */
+    public void invalidateFlags() {
+        effectiveFlags = null;
+        MyTownUniverse.instance.invalidateLocations();
+        for (Plot plot : plotsContainer) {
+            plot.invalidateFlags();
         }
     }
 
@@ -140,7 +211,7 @@ public class Town implements Comparable<Town> {
      */
     public List<Resident> getOwnersAtPosition(int dim, int x, int y, int z) {
         List<Resident> list = new ArrayList<Resident>();
-        Plot plot = plotsContainer.get(dim, x, y, z);
+        Plot plot = getPlotAtCoords(dim, x, y, z);
         if (plot == null) {
             if (isPointInTown(dim, x, z) && !(this instanceof AdminTown) && !residentsMap.isEmpty()) {
             	Resident mayor = residentsMap.getMayor();
@@ -185,22 +256,23 @@ public class Town implements Comparable<Town> {
     }
 
     public String formatOwners(int dim, int x, int y, int z) {
-        List<Resident> residents = getOwnersAtPosition(dim, x, y, z);
-        String formattedList = "";
-
-        for (Resident r : residents) {
-            if (formattedList.equals("")) {
-                formattedList = r.getPlayerName();
-            } else {
-                formattedList += ", " + r.getPlayerName();
-            }
+        Plot plot = getPlotAtCoords(dim, x, y, z);
+        if (plot == null && !isPointInTown(dim, x, z)) {
+            return EnumChatFormatting.RED + "SERVER ADMINS";
         }
+        return formatOwners(plot);
+    }
 
-        if(formattedList.equals("")) {
-            formattedList = EnumChatFormatting.RED + "SERVER ADMINS";
+    /**
+     * Formats the owners of the plot, or the mayor if the plot is null. For positions already known to be in this town.
+     */
+    public String formatOwners(Plot plot) {
+        if (plot != null) {
+            return plot.formatOwners();
         }
 
-        return formattedList;
+        Resident mayor = this instanceof AdminTown ? null : residentsMap.getMayor();
+        return mayor == null ? EnumChatFormatting.RED + "SERVER ADMINS" : mayor.getPlayerName();
     }
 
     /* ----- Comparable ----- */
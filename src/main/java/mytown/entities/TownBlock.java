@@ -1,8 +1,11 @@
 package mytown.entities;
 
 import myessentials.entities.Volume;
+import mytown.api.container.ChunkPlotsContainer;
 import mytown.api.container.PlotsContainer;
 import mytown.config.Config;
+import mytown.datasource.MyTownUniverse;
+import mytown.entities.flag.MobPolicy;
 
 public class TownBlock {
     /**
@@ -19,7 +22,17 @@ public class TownBlock {
     private final boolean isFarClaim;
     private final int pricePaid;
 
-    public final PlotsContainer plotsContainer = new PlotsContainer(Config.defaultMaxPlots);
+    /**
+     * Plots that intersect this Block, sorted by height. Used for resolving the plot at a given position.
+     */
+    public final PlotsContainer plotsContainer = new ChunkPlotsContainer(Config.defaultMaxPlots);
+
+    /**
+     * The mob policy of the whole block, or null if the plots in it don't agree with the town.
+     * Resolved again whenever the location version of the universe changes.
+     */
+    private MobPolicy mobPolicy;
+    private int mobPolicyVersion = -1;
 
     public TownBlock(int dim, int x, int z, boolean isFarClaim, int pricePaid, Town town) {
         this.dim = dim;
@@ -67,6 +80,28 @@ public class TownBlock {
         return this.pricePaid;
     }
 
+    /**
+     * Gets the mob policy at the position, without any plot lookup unless a plot in this block has its own policy.
+     */
+    public MobPolicy getMobPolicy(int x, int y, int z) {
+        int version = MyTownUniverse.instance.getLocationVersion();
+        if (mobPolicyVersion != version) {
+            mobPolicy = town.getEffectiveFlags().getMobPolicy();
+            for (Plot plot : plotsContainer) {
+                if (plot.getEffectiveFlags().getMobPolicy() != mobPolicy) {
+                    mobPolicy = null;
+                    break;
+                }
+            }
+            mobPolicyVersion = version;
+        }
+        if (mobPolicy != null) {
+            return mobPolicy;
+        }
+        Plot plot = plotsContainer.get(dim, x, y, z);
+        return plot == null ? town.getEffectiveFlags().getMobPolicy() : plot.getEffectiveFlags().getMobPolicy();
+    }
+
     @Override
     public String toString() {
         return String.format("Block: {Dim: %s, X: %s, Z: %s, Town: %s, Plots: %s}", dim, x, z, town.getName(), plotsContainer.size());
@@ -1,8 +1,8 @@
 package mytown.entities;
 
-import myessentials.utils.PlayerUtils;
 import mytown.api.container.FlagsContainer;
 import mytown.entities.flag.FlagType;
+import mytown.protection.PermissionNodeCache;
 
 /**
  * Wilderness permissions
@@ -17,8 +17,8 @@ public class Wild {
      * Checks if Resident is allowed to do the action specified by the FlagType in the Wild
      */
     public boolean hasPermission(Resident res, FlagType type, Object denialValue) {
-        if (flagsContainer.getValue(type).equals(denialValue)) {
-            return PlayerUtils.isOp(res.getPlayer());
+        if (flagsContainer.hasValue(type, denialValue)) {
+            return PermissionNodeCache.instance.isOp(res.getUUID());
         }
         return true;
     }
@@ -0,0 +1,68 @@
+package mytown.entities.flag;
+
+import mytown.api.container.FlagsContainer;
+
+/**
+ * The values of all the flags that apply in a Town or a Plot, with the boolean flags packed in a bitset.
+ * Plots take their own values over the town's, town only flags always come from the town.
+ */
+public class EffectiveFlags {
+
+    private final Object[] values = new Object[FlagType.values().length];
+    private long booleans = 0;
+    private final MobPolicy mobPolicy;
+
+    /**
+     * Compiles the flags of a town, falling back to the default values.
+     */
+    public EffectiveFlags(FlagsContainer townFlags) {
+        for (FlagType type : FlagType.values()) {
+            set(type, townFlags.getValue(type));
+        }
+        mobPolicy = MobPolicy.fromFlag(getValue(FlagType.MOBS));
+    }
+
+    /**
+     * Compiles the flags of a plot over the already compiled flags of its town.
+     */
+    public EffectiveFlags(FlagsContainer plotFlags, EffectiveFlags townFlags) {
+        for (FlagType type : FlagType.values()) {
+            Flag flag = plotFlags.get(type);
+            set(type, flag == null || type.isTownOnly() ? townFlags.getValue(type) : flag.getValue());
+        }
+        mobPolicy = MobPolicy.fromFlag(getValue(FlagType.MOBS));
+    }
+
+    private void set(FlagType type, Object value) {
+        values[type.ordinal()] = value;
+        if (Boolean.TRUE.equals(value)) {
+            booleans |= 1L << type.ordinal();
+        }
+    }
+
+    public Object getValue(FlagType type) {
+        return values[type.ordinal()];
+    }
+
+    public boolean getBoolean(FlagType type) {
+        return (booleans & (1L << type.ordinal())) != 0;
+    }
+
+    public String getString(FlagType type) {
+        return (String) values[type.ordinal()];
+    }
+
+    public MobPolicy getMobPolicy() {
+        return mobPolicy;
+    }
+
+    /**
+     * Checks if the flag currently has the given value.
+     */
+    public boolean hasValue(FlagType type, Object value) {
+        if (type.getType() == Boolean.class) {
+            return value instanceof Boolean && getBoolean(type) == (Boolean) value;
+        }
+        return values[type.ordinal()].equals(value);
+    }
+}
@@ -0,0 +1,38 @@
+package mytown.entities.flag;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.monster.EntityMob;
+
+/**
+ * The values of the MOBS flag, compiled so that spawn checks don't compare strings.
+ */
+public enum MobPolicy {
+    ALL,
+    PASSIVES,
+    NONE;
+
+    public static MobPolicy fromFlag(Object value) {
+        if ("none".equals(value)) {
+            return NONE;
+        }
+        if ("passives".equals(value)) {
+            return PASSIVES;
+        }
+        return ALL;
+    }
+
+    /**
+     * Checks if the entity is allowed to exist where this policy applies.
+     */
+    public boolean allows(Entity entity) {
+        switch (this) {
+            case NONE:
+                return !(entity instanceof EntityLiving);
+            case PASSIVES:
+                return !(entity instanceof EntityMob);
+            default:
+                return true;
+        }
+    }
+}
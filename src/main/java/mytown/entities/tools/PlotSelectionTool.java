@@ -2,9 +2,9 @@ package mytown.entities.tools;
 
 import mytown.MyTown;
 import mytown.config.Config;
-import myessentials.thread.DelayedThread;
 import mytown.datasource.MyTownUniverse;
 import mytown.entities.*;
+import mytown.handlers.Scheduler;
 import mytown.handlers.VisualsHandler;
 import mytown.util.MyTownUtils;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -12,7 +12,6 @@ import net.minecraft.init.Blocks;
 import net.minecraft.init.Items;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.EnumChatFormatting;
-import org.apache.commons.lang3.exception.ExceptionUtils;
 
 /**
  * Tool that selects two corners of a plot and creates it.
@@ -73,6 +72,9 @@ public class PlotSelectionTool extends Tool {
         owner.sendMessage(getLocal().getLocalization("mytown.notification.tool.mode", "heightDependent", heightDependent));
     }
 
+    /**
+     * Resets the selection, unmarking its blocks after the delay in seconds.
+     */
     public void resetSelection(boolean resetBlocks, int delay) {
         this.selectionFirst = null;
         this.selectionSecond = null;
@@ -81,11 +83,13 @@ public class PlotSelectionTool extends Tool {
             if(delay <= 0) {
                 VisualsHandler.instance.unmarkBlocks((EntityPlayerMP) owner.getPlayer(), owner.getPlayer());
             } else {
-                try {
-                    new DelayedThread(delay, VisualsHandler.class.getMethod("unmarkBlocks", EntityPlayerMP.class, Object.class), VisualsHandler.instance, owner.getPlayer(), owner.getPlayer()).start();
-                } catch (Exception ex) {
-                    MyTown.instance.LOG.error(ExceptionUtils.getStackTrace(ex));
-                }
+                final EntityPlayerMP player = (EntityPlayerMP) owner.getPlayer();
+                Scheduler.instance.schedule(delay * 20, new Runnable() {
+                    @Override
+                    public void run() {
+                        VisualsHandler.instance.unmarkBlocks(player, player);
+                    }
+                });
             }
         }
     }
@@ -79,7 +79,7 @@ public class PlotSellTool extends Tool {
             return false;
         }
 
-        Plot plot = town.plotsContainer.get(dim, x, y, z);
+        Plot plot = town.getPlotAtCoords(dim, x, y, z);
         if(plot == null) {
             owner.sendMessage(getLocal().getLocalization("mytown.cmd.err.plot.sell.notInPlot", town.getName()));
             return false;
@@ -77,7 +77,7 @@ public class WhitelisterTool extends Tool {
 
         //TODO: Switch to using proper permission strings
         if(!(town.residentsMap.get(owner).getName().equals("Assistant") || town.residentsMap.get(owner).getName().equals("Mayor"))) {
-            Plot plot = town.plotsContainer.get(dim, x, y, z);
+            Plot plot = town.getPlotAtCoords(dim, x, y, z);
             if(plot == null || !plot.ownersContainer.contains(owner)) {
                 owner.sendMessage(getLocal().getLocalization("mytown.cmd.err.perm.whitelist"));
                 return false;
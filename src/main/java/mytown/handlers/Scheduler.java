@@ -0,0 +1,129 @@
+package mytown.handlers;
+
+import cpw.mods.fml.common.eventhandler.SubscribeEvent;
+import cpw.mods.fml.common.gameevent.TickEvent;
+import mytown.MyTown;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs MyTown's time based work on the server thread after a delay in server ticks.
+ * Tasks are kept in a timer wheel so that each tick only looks at the slot of tasks that may be due,
+ * instead of every cooldown and timer being counted down each tick.
+ */
+public class Scheduler {
+
+    public static final Scheduler instance = new Scheduler();
+
+    private static final int WHEEL_SIZE = 256;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    @SuppressWarnings("unchecked")
+    private final List<Task>[] wheel = new List[WHEEL_SIZE];
+    private long tick = 0;
+
+    private Scheduler() {
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent ev) {
+        if (ev.phase == TickEvent.Phase.START) {
+            tick();
+        }
+    }
+
+    /**
+     * Advances the wheel by one tick and runs the tasks that are due.
+     */
+    public void tick() {
+        tick++;
+
+        int index = (int) (tick & WHEEL_MASK);
+        List<Task> slot = wheel[index];
+        if (slot == null || slot.isEmpty()) {
+            return;
+        }
+        // Tasks scheduled while running this slot go into a fresh list
+        wheel[index] = null;
+
+        for (int i = 0; i < slot.size(); i++) {
+            Task task = slot.get(i);
+            if (task.cancelled) {
+                continue;
+            }
+            if (task.due > tick) {
+                add(task);
+                continue;
+            }
+            try {
+                task.runnable.run();
+            } catch (Exception ex) {
+                MyTown.instance.LOG.error(ExceptionUtils.getStackTrace(ex));
+            }
+            if (task.period > 0 && !task.cancelled) {
+                task.due = tick + task.period;
+                add(task);
+            }
+        }
+    }
+
+    /**
+     * Runs the task once after the given amount of ticks.
+     */
+    public Task schedule(int delay, Runnable runnable) {
+        return scheduleRepeating(delay, 0, runnable);
+    }
+
+    /**
+     * Runs the task after the given amount of ticks and then every period ticks until it's cancelled.
+     */
+    public Task scheduleRepeating(int delay, int period, Runnable runnable) {
+        Task task = new Task(runnable, tick + Math.max(1, delay), period);
+        add(task);
+        return task;
+    }
+
+    /**
+     * Drops all the tasks. Called when the server stops.
+     */
+    public void clear() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = null;
+        }
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    private void add(Task task) {
+        int index = (int) (task.due & WHEEL_MASK);
+        if (wheel[index] == null) {
+            wheel[index] = new ArrayList<Task>();
+        }
+        wheel[index].add(task);
+    }
+
+    public static class Task {
+        private final Runnable runnable;
+        private final int period;
+        private long due;
+        private boolean cancelled = false;
+
+        private Task(Runnable runnable, long due, int period) {
+            this.runnable = runnable;
+            this.due = due;
+            this.period = period;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
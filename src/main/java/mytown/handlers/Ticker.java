@@ -4,14 +4,13 @@ import cpw.mods.fml.common.eventhandler.EventPriority;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import cpw.mods.fml.common.gameevent.PlayerEvent;
 import cpw.mods.fml.common.gameevent.TickEvent;
-import cpw.mods.fml.relauncher.Side;
 import mytown.MyTown;
-import mytown.config.Config;
 import mytown.datasource.MyTownDatasource;
 import mytown.datasource.MyTownUniverse;
 import mytown.entities.*;
 import mytown.entities.blocks.Sign;
 import mytown.entities.tools.Tool;
+import mytown.protection.PermissionNodeCache;
 import mytown.proxies.DatasourceProxy;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
@@ -19,49 +18,19 @@ import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.entity.player.UseHoeEvent;
 import net.minecraftforge.event.world.BlockEvent;
 
-import java.util.Calendar;
-
 public class Ticker {
 
-    private boolean ticked = true;
-    private int lastCalendarDay = -1;
     @SubscribeEvent
-    public void onTickEvent(TickEvent.WorldTickEvent ev) {
-        if(ev.side == Side.CLIENT)
-            return;
-
-
-        for(Resident res : MyTownUniverse.instance.residents) {
-            res.tick();
-        }
-
-        if((Config.costTownUpkeep > 0 || Config.costAdditionalUpkeep > 0) && ev.phase == TickEvent.Phase.START) {
-            if (ticked) {
-                if(lastCalendarDay != -1 && Calendar.getInstance().get(Calendar.DAY_OF_YEAR) != lastCalendarDay) {
-                    for (int i = 0; i < MyTownUniverse.instance.towns.size(); i++) {
-                        Town town = MyTownUniverse.instance.towns.get(i);
-                        if (!(town instanceof AdminTown)) {
-                            town.bank.payUpkeep();
-                            if(town.bank.getDaysNotPaid() == Config.upkeepTownDeletionDays && Config.upkeepTownDeletionDays > 0) {
-                                MyTown.instance.LOG.info("Town {} has been deleted because it didn't pay upkeep for {} days.", town.getName(), Config.upkeepTownDeletionDays);
-                                DatasourceProxy.getDatasource().deleteTown(town);
-                            } else {
-                                DatasourceProxy.getDatasource().saveTownBank(town.bank);
-                            }
-                        }
-                    }
-                    ticked = false;
-                }
-                lastCalendarDay = Calendar.getInstance().get(Calendar.DAY_OF_YEAR);
-            } else {
-                ticked = true;
-            }
+    public void onServerTick(TickEvent.ServerTickEvent ev) {
+        if(ev.phase == TickEvent.Phase.END) {
+            MyTownUniverse.instance.publishSnapshot();
         }
     }
 
     @SubscribeEvent(priority = EventPriority.HIGHEST)
     public void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent ev) {
         MyTownDatasource ds = DatasourceProxy.getDatasource();
+        PermissionNodeCache.instance.flush(ev.player.getPersistentID());
         Resident res = MyTownUniverse.instance.getOrMakeResident(ev.player);
         if (res != null) {
             res.setPlayer(ev.player);
@@ -73,9 +42,11 @@ public class Ticker {
     @SubscribeEvent
     public void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent ev) {
         MyTownDatasource ds = DatasourceProxy.getDatasource();
+        PermissionNodeCache.instance.flush(ev.player.getPersistentID());
         Resident res = MyTownUniverse.instance.getOrMakeResident(ev.player);
         if (res != null) {
             res.setPlayer(ev.player);
+            res.getMovement().reset();
         }
 
     }
@@ -0,0 +1,196 @@
+package mytown.handlers;
+
+import mytown.MyTown;
+import mytown.config.Config;
+import mytown.datasource.MyTownUniverse;
+import mytown.entities.AdminTown;
+import mytown.entities.Bank;
+import mytown.entities.Resident;
+import mytown.entities.Town;
+import mytown.proxies.DatasourceProxy;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Takes the daily upkeep from the towns. The towns are charged in batches spread over the configured window,
+ * the banks are saved in one transaction once every town was charged and the notifications are sent afterwards,
+ * a batch per tick.
+ */
+public class UpkeepHandler {
+
+    public static final UpkeepHandler instance = new UpkeepHandler();
+
+    /**
+     * How often, in ticks, the upkeep checks if the day changed.
+     */
+    private static final int CHECK_PERIOD = 20;
+
+    private int lastCalendarDay;
+    private final List<Town> towns = new ArrayList<Town>();
+    private final Set<Town> removedTowns = Collections.newSetFromMap(new IdentityHashMap<Town, Boolean>());
+    private final List<Bank> banks = new ArrayList<Bank>();
+    private final Queue<Notification> notifications = new LinkedList<Notification>();
+    private int next = 0;
+    private int batchSize = 1;
+
+    private final Runnable chargeBatch = new Runnable() {
+        @Override
+        public void run() {
+            chargeBatch();
+        }
+    };
+
+    private final Runnable notifyBatch = new Runnable() {
+        @Override
+        public void run() {
+            notifyBatch();
+        }
+    };
+
+    private UpkeepHandler() {
+    }
+
+    /**
+     * Starts checking for the day change. Called when the server starts.
+     */
+    public void start() {
+        lastCalendarDay = Calendar.getInstance().get(Calendar.DAY_OF_YEAR);
+        towns.clear();
+        removedTowns.clear();
+        banks.clear();
+        notifications.clear();
+
+        Scheduler.instance.scheduleRepeating(CHECK_PERIOD, CHECK_PERIOD, new Runnable() {
+            @Override
+            public void run() {
+                checkDay();
+            }
+        });
+    }
+
+    private void checkDay() {
+        int day = Calendar.getInstance().get(Calendar.DAY_OF_YEAR);
+        if (day == lastCalendarDay) {
+            return;
+        }
+        lastCalendarDay = day;
+
+        if (!towns.isEmpty() || Config.costTownUpkeep <= 0 && Config.costAdditionalUpkeep <= 0) {
+            return;
+        }
+        for (int i = 0; i < MyTownUniverse.instance.towns.size(); i++) {
+            Town town = MyTownUniverse.instance.towns.get(i);
+            if (!(town instanceof AdminTown)) {
+                towns.add(town);
+            }
+        }
+        if (towns.isEmpty()) {
+            return;
+        }
+
+        int window = Math.max(1, Config.upkeepWindow);
+        batchSize = (towns.size() + window - 1) / window;
+        next = 0;
+        Scheduler.instance.schedule(1, chargeBatch);
+    }
+
+    private void chargeBatch() {
+        int end = Math.min(towns.size(), next + batchSize);
+        for (; next < end; next++) {
+            charge(towns.get(next));
+        }
+
+        if (next < towns.size()) {
+            Scheduler.instance.schedule(1, chargeBatch);
+            return;
+        }
+
+        saveBanks();
+        Scheduler.instance.schedule(1, notifyBatch);
+    }
+
+    /**
+     * Charges the towns left in the window and saves all the banks charged so far. Called when the server stops,
+     * since the day is not charged again after a restart.
+     */
+    public void stop() {
+        if (towns.isEmpty()) {
+            return;
+        }
+        for (; next < towns.size(); next++) {
+            charge(towns.get(next));
+        }
+        saveBanks();
+        notifications.clear();
+    }
+
+    /**
+     * Skips the town if it's still waiting to be charged. Called when a town is removed from the universe.
+     */
+    public void removeTown(Town town) {
+        if (!towns.isEmpty()) {
+            removedTowns.add(town);
+        }
+    }
+
+    private void charge(Town town) {
+        if (removedTowns.contains(town)) {
+            return;
+        }
+
+        notifications.add(new Notification(town, town.bank.payUpkeep()));
+        if (town.bank.getDaysNotPaid() == Config.upkeepTownDeletionDays && Config.upkeepTownDeletionDays > 0) {
+            if (DatasourceProxy.getDatasource().deleteTown(town)) {
+                MyTown.instance.LOG.info("Town {} has been deleted because it didn't pay upkeep for {} days.", town.getName(), Config.upkeepTownDeletionDays);
+                return;
+            }
+            MyTown.instance.LOG.error("Failed to delete town {} after it didn't pay upkeep for {} days.", town.getName(), Config.upkeepTownDeletionDays);
+        }
+        banks.add(town.bank);
+    }
+
+    private void saveBanks() {
+        if (!banks.isEmpty()) {
+            DatasourceProxy.getDatasource().saveTownBanks(banks);
+        }
+        MyTown.instance.LOG.info("Took the daily upkeep from {} towns.", towns.size());
+        towns.clear();
+        removedTowns.clear();
+        banks.clear();
+    }
+
+    private void notifyBatch() {
+        for (int i = 0; i < batchSize && !notifications.isEmpty(); i++) {
+            notifications.poll().send();
+        }
+        if (!notifications.isEmpty()) {
+            Scheduler.instance.schedule(1, notifyBatch);
+        }
+    }
+
+    /**
+     * The upkeep message for the residents the town had when it was charged, kept even if the town was deleted.
+     */
+    private static class Notification {
+        private final List<Resident> residents;
+        private final String message;
+
+        private Notification(Town town, String message) {
+            this.residents = new ArrayList<Resident>(town.residentsMap.keySet());
+            this.message = message;
+        }
+
+        private void send() {
+            for (Resident res : residents) {
+                res.sendMessage(message);
+            }
+        }
+    }
+}
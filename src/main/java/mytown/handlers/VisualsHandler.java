@@ -3,7 +3,6 @@ package mytown.handlers;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import cpw.mods.fml.common.gameevent.TickEvent;
 import cpw.mods.fml.relauncher.Side;
-import mytown.MyTown;
 import myessentials.utils.WorldUtils;
 import mytown.api.container.TownBlocksContainer;
 import mytown.entities.Plot;
@@ -13,7 +12,6 @@ import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.init.Blocks;
 import net.minecraft.network.play.server.S23PacketBlockChange;
 import net.minecraft.server.MinecraftServer;
-import org.apache.commons.lang3.exception.ExceptionUtils;
 
 import java.util.*;
 
@@ -186,44 +184,34 @@ public class VisualsHandler {
     }
 
     /**
-     * This method is gonna wait until the tick function clears the spot.
+     * Adds the blocks once the tick function cleared the blocks that were unmarked for the same key,
+     * checking again on the next tick until it did.
      */
     public void addMarkedBlocks(final EntityPlayerMP caller, final Object key, final List<BlockCoords> blockCoords) {
-        // Waits 5 milliseconds if there are still blocks to be deleted.
-        Thread t = new Thread() {
-            @Override
-            public void run() {
-
-                VisualObject visualObject = null;
-                for(VisualObject marked : markedBlocks) {
-                    if(marked.player == caller && marked.object == key) {
-                        visualObject = marked;
-                    }
-                }
+        VisualObject visualObject = null;
+        for(VisualObject marked : markedBlocks) {
+            if(marked.player == caller && marked.object == key) {
+                visualObject = marked;
+            }
+        }
 
-                if (visualObject != null) {
-                    boolean blocksNotDeleted = true;
-                    while (blocksNotDeleted && markedBlocks.contains(visualObject)) {
-                        blocksNotDeleted = false;
-                        for (BlockCoords coords : visualObject.blockCoords) {
-                            if (coords != null && coords.deleted) {
-                                blocksNotDeleted = true;
-                            }
-                        }
-                        try {
-                            Thread.sleep(5);
-                        } catch (Exception ex) {
-                            MyTown.instance.LOG.error(ExceptionUtils.getStackTrace(ex));
-                        }
+        if (visualObject == null) {
+            markedBlocks.add(new VisualObject(caller, key, blockCoords));
+            return;
+        }
+
+        for (BlockCoords coords : visualObject.blockCoords) {
+            if (coords != null && coords.deleted) {
+                Scheduler.instance.schedule(1, new Runnable() {
+                    @Override
+                    public void run() {
+                        addMarkedBlocks(caller, key, blockCoords);
                     }
-                    visualObject.blockCoords.addAll(blockCoords);
-                } else {
-                    visualObject = new VisualObject(caller, key, blockCoords);
-                    markedBlocks.add(visualObject);
-                }
+                });
+                return;
             }
-        };
-        t.start();
+        }
+        visualObject.blockCoords.addAll(blockCoords);
     }
 
     public void updatePlotBorders(Plot plot) {
@@ -0,0 +1,131 @@
+package mytown.protection;
+
+import mytown.config.Config;
+import mytown.datasource.MyTownUniverse;
+import mytown.entities.BlockWhitelist;
+import mytown.entities.Town;
+import mytown.proxies.DatasourceProxy;
+import mytown.util.MyTownUtils;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.common.DimensionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Removes the block whitelists that don't point to a valid block anymore, a few of them each tick.
+ * Whitelists are queued when their chunk loads and periodically for all the towns. The ones in chunks
+ * that aren't loaded are only dropped from the queue, unless their town is gone, so checks never load chunks.
+ */
+public class BlockWhitelistValidator {
+
+    private final Queue<Entry> queue = new LinkedList<Entry>();
+    private final Set<BlockWhitelist> queued = new HashSet<BlockWhitelist>();
+
+    /**
+     * Queues the whitelists of the town that owns the chunk.
+     */
+    public void addChunk(int dim, int chunkX, int chunkZ) {
+        Town town = MyTownUtils.getTownAtPosition(dim, chunkX, chunkZ);
+        if (town == null) {
+            return;
+        }
+        for (BlockWhitelist bw : town.blockWhitelistsContainer.getInChunk(dim, chunkX, chunkZ)) {
+            add(bw, town);
+        }
+    }
+
+    /**
+     * Queues the whitelists of every town that can be checked right now.
+     * The ones in unloaded chunks are queued again when their chunk loads.
+     */
+    public void addAll() {
+        for (int i = 0; i < MyTownUniverse.instance.towns.size(); i++) {
+            Town town = MyTownUniverse.instance.towns.get(i);
+            for (int j = 0; j < town.blockWhitelistsContainer.size(); j++) {
+                BlockWhitelist bw = town.blockWhitelistsContainer.get(j);
+                if (isReady(bw)) {
+                    add(bw, town);
+                }
+            }
+        }
+    }
+
+    public void add(BlockWhitelist bw, Town town) {
+        if (queued.add(bw)) {
+            queue.add(new Entry(bw, town));
+        }
+    }
+
+    /**
+     * Checks up to the configured amount of queued whitelists and deletes the invalid ones, a batch per town.
+     * Entries that were removed meanwhile or whose chunk unloaded are dropped without counting against the budget.
+     */
+    public void tick() {
+        if (queue.isEmpty()) {
+            return;
+        }
+
+        Map<Town, List<BlockWhitelist>> invalid = null;
+        int checked = 0;
+        while (checked < Config.blockWhitelistChecksPerTick && !queue.isEmpty()) {
+            Entry entry = queue.poll();
+            queued.remove(entry.bw);
+            if (!entry.town.blockWhitelistsContainer.contains(entry.bw) || !isReady(entry.bw)) {
+                continue;
+            }
+            checked++;
+            if (ProtectionUtils.isBlockWhitelistValid(entry.bw)) {
+                continue;
+            }
+
+            if (invalid == null) {
+                invalid = new HashMap<Town, List<BlockWhitelist>>();
+            }
+            List<BlockWhitelist> bws = invalid.get(entry.town);
+            if (bws == null) {
+                bws = new ArrayList<BlockWhitelist>();
+                invalid.put(entry.town, bws);
+            }
+            bws.add(entry.bw);
+        }
+
+        if (invalid != null) {
+            for (Map.Entry<Town, List<BlockWhitelist>> entry : invalid.entrySet()) {
+                DatasourceProxy.getDatasource().deleteBlockWhitelists(entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    public void clear() {
+        queue.clear();
+        queued.clear();
+    }
+
+    /**
+     * Checks if the whitelist can be validated without loading its chunk.
+     */
+    private boolean isReady(BlockWhitelist bw) {
+        if (MyTownUtils.getTownAtPosition(bw.getDim(), bw.getX() >> 4, bw.getZ() >> 4) == null) {
+            return true;
+        }
+        WorldServer world = DimensionManager.getWorld(bw.getDim());
+        return world != null && world.theChunkProviderServer.chunkExists(bw.getX() >> 4, bw.getZ() >> 4);
+    }
+
+    private static class Entry {
+        private final BlockWhitelist bw;
+        private final Town town;
+
+        private Entry(BlockWhitelist bw, Town town) {
+            this.bw = bw;
+            this.town = town;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package mytown.protection;
+
+import mytown.entities.flag.FlagType;
+import mytown.protection.segment.Segment;
+import mytown.protection.segment.SegmentEntity;
+import mytown.protection.segment.SegmentTileEntity;
+import net.minecraft.entity.Entity;
+import net.minecraft.tileentity.TileEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What all the loaded protections have to say about a single class of entity or tile entity.
+ * Only depends on the class, so it's resolved once per class by Protections, down to the matching segments.
+ */
+public class ClassProtections {
+
+    private final List<Tracking<SegmentTileEntity>> tileTracking;
+    private final List<FlagType> tileFlags;
+    private final boolean tileOwnable;
+
+    private final List<Tracking<SegmentEntity>> entityTracking;
+    private final boolean entityProtected;
+    private final boolean entityTrespassPvp;
+
+    @SuppressWarnings("unchecked")
+    public ClassProtections(Class<?> cls, List<Protection> protections) {
+        List<Tracking<SegmentTileEntity>> tileTracking = new ArrayList<Tracking<SegmentTileEntity>>();
+        List<FlagType> tileFlags = new ArrayList<FlagType>();
+        boolean tileOwnable = false;
+        List<Tracking<SegmentEntity>> entityTracking = new ArrayList<Tracking<SegmentEntity>>();
+        boolean entityProtected = false;
+        boolean entityTrespassPvp = false;
+
+        if (TileEntity.class.isAssignableFrom(cls)) {
+            Class<? extends TileEntity> te = (Class<? extends TileEntity>) cls;
+            for (Protection prot : protections) {
+                if (prot.isTileTracked(te)) {
+                    tileTracking.add(new Tracking<SegmentTileEntity>(prot, prot.getSegmentsForTile(te)));
+                    tileFlags.addAll(prot.getFlagsForTile(te));
+                }
+                tileOwnable |= prot.isTileEntityOwnable(te);
+            }
+        } else if (Entity.class.isAssignableFrom(cls)) {
+            Class<? extends Entity> entity = (Class<? extends Entity>) cls;
+            for (Protection prot : protections) {
+                if (prot.isEntityTracked(entity)) {
+                    entityTracking.add(new Tracking<SegmentEntity>(prot, prot.getTrackedSegmentsForEntity(entity)));
+                }
+                entityProtected |= prot.isEntityProtected(entity);
+                entityTrespassPvp |= prot.canEntityTrespassPvp(entity);
+            }
+        }
+
+        this.tileTracking = Collections.unmodifiableList(tileTracking);
+        this.tileFlags = Collections.unmodifiableList(tileFlags);
+        this.tileOwnable = tileOwnable;
+        this.entityTracking = Collections.unmodifiableList(entityTracking);
+        this.entityProtected = entityProtected;
+        this.entityTrespassPvp = entityTrespassPvp;
+    }
+
+    /**
+     * Gets the protections that have a segment tracking this tile entity class, along with those segments.
+     */
+    public List<Tracking<SegmentTileEntity>> getTileTracking() {
+        return tileTracking;
+    }
+
+    public boolean isTileTracked() {
+        return !tileTracking.isEmpty();
+    }
+
+    /**
+     * Gets the flags of all the segments tracking this tile entity class.
+     */
+    public List<FlagType> getTileFlags() {
+        return tileFlags;
+    }
+
+    public boolean isTileOwnable() {
+        return tileOwnable;
+    }
+
+    /**
+     * Gets the protections that track this entity class, along with their tracked segments for it.
+     */
+    public List<Tracking<SegmentEntity>> getEntityTracking() {
+        return entityTracking;
+    }
+
+    public boolean isEntityTracked() {
+        return !entityTracking.isEmpty();
+    }
+
+    public boolean isEntityProtected() {
+        return entityProtected;
+    }
+
+    public boolean canEntityTrespassPvp() {
+        return entityTrespassPvp;
+    }
+
+    /**
+     * A protection and its segments that match the class.
+     */
+    public static class Tracking<S extends Segment> {
+        public final Protection protection;
+        public final List<S> segments;
+
+        private Tracking(Protection protection, List<S> segments) {
+            this.protection = protection;
+            this.segments = Collections.unmodifiableList(segments);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package mytown.protection;
+
+import cpw.mods.fml.common.eventhandler.EventPriority;
+import cpw.mods.fml.common.eventhandler.SubscribeEvent;
+import mytown.api.events.PlotEvent;
+import mytown.api.events.RankEvent;
+import mytown.api.events.ResidentEvent;
+import mytown.api.events.TownEvent;
+import mytown.config.Config;
+import mytown.entities.Plot;
+import mytown.entities.Resident;
+import mytown.entities.Town;
+import mytown.entities.flag.FlagType;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Caches the result of the permission checks done by towns and plots, for each resident and flag.
+ * Entries are dropped by the datasource and the MyTown events whenever something that could change them is modified.
+ * Since ops and permission nodes can change without any event, entries also expire after a few ticks.
+ */
+public class PermissionCache {
+
+    public static final PermissionCache instance = new PermissionCache();
+
+    /**
+     * Town or Plot -> Resident -> decisions indexed by flag ordinal
+     */
+    private final Map<Object, Map<Resident, Decision[]>> decisions = new IdentityHashMap<Object, Map<Resident, Decision[]>>();
+    private int size = 0;
+
+    private PermissionCache() {
+    }
+
+    /**
+     * Gets the cached decision for the resident in the given Town or Plot, or null if none is cached.
+     */
+    public Boolean get(Resident res, Object subject, FlagType flagType, Object denialValue) {
+        Map<Resident, Decision[]> residents = decisions.get(subject);
+        if (residents == null) {
+            return null;
+        }
+        Decision[] flags = residents.get(res);
+        if (flags == null) {
+            return null;
+        }
+        Decision decision = flags[flagType.ordinal()];
+        if (decision == null || !decision.denialValue.equals(denialValue) || getTick() - decision.tick > Config.permissionCacheTicks) {
+            return null;
+        }
+        return decision.value;
+    }
+
+    public void put(Resident res, Object subject, FlagType flagType, Object denialValue, boolean value) {
+        if (Config.permissionCacheSize <= 0) {
+            return;
+        }
+        if (size >= Config.permissionCacheSize) {
+            invalidateAll();
+        }
+
+        Map<Resident, Decision[]> residents = decisions.get(subject);
+        if (residents == null) {
+            residents = new IdentityHashMap<Resident, Decision[]>();
+            decisions.put(subject, residents);
+        }
+        Decision[] flags = residents.get(res);
+        if (flags == null) {
+            flags = new Decision[FlagType.values().length];
+            residents.put(res, flags);
+        }
+        if (flags[flagType.ordinal()] == null) {
+            size++;
+        }
+        flags[flagType.ordinal()] = new Decision(denialValue, value, getTick());
+    }
+
+    /**
+     * Drops all the decisions for the town and its plots.
+     */
+    public void invalidate(Town town) {
+        remove(town);
+        for (Plot plot : town.plotsContainer) {
+            remove(plot);
+        }
+    }
+
+    public void invalidate(Plot plot) {
+        remove(plot);
+    }
+
+    /**
+     * Drops all the decisions for the resident, in all towns and plots.
+     */
+    public void invalidate(Resident res) {
+        for (Iterator<Map<Resident, Decision[]>> it = decisions.values().iterator(); it.hasNext(); ) {
+            Map<Resident, Decision[]> residents = it.next();
+            Decision[] flags = residents.remove(res);
+            if (flags != null) {
+                size -= count(flags);
+                if (residents.isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        decisions.clear();
+        size = 0;
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onTownEvent(TownEvent ev) {
+        if (ev instanceof TownEvent.TownCreateEvent || ev instanceof TownEvent.TownDeleteEvent) {
+            invalidate(ev.town);
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onPlotEvent(PlotEvent ev) {
+        invalidate(ev.plot);
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onRankEvent(RankEvent ev) {
+        invalidate(ev.rank.getTown());
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onResidentEvent(ResidentEvent ev) {
+        invalidate(ev.resident);
+    }
+
+    private void remove(Object subject) {
+        Map<Resident, Decision[]> residents = decisions.remove(subject);
+        if (residents != null) {
+            for (Decision[] flags : residents.values()) {
+                size -= count(flags);
+            }
+        }
+    }
+
+    private static int count(Decision[] flags) {
+        int count = 0;
+        for (Decision decision : flags) {
+            if (decision != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int getTick() {
+        MinecraftServer server = MinecraftServer.getServer();
+        return server == null ? 0 : server.getTickCounter();
+    }
+
+    private static class Decision {
+        private final Object denialValue;
+        private final boolean value;
+        private final int tick;
+
+        private Decision(Object denialValue, boolean value, int tick) {
+            this.denialValue = denialValue;
+            this.value = value;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package mytown.protection;
+
+import myessentials.utils.PlayerUtils;
+import mypermissions.proxies.PermissionProxy;
+import mytown.config.Config;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Caches the op status and the permission nodes of players for a few ticks,
+ * so that the permission manager is not queried on every protection check.
+ */
+public class PermissionNodeCache {
+
+    public static final PermissionNodeCache instance = new PermissionNodeCache();
+
+    private final Map<UUID, Map<String, Entry>> nodes = new HashMap<UUID, Map<String, Entry>>();
+    private final Map<UUID, Entry> ops = new HashMap<UUID, Entry>();
+
+    private long hits = 0;
+    private long misses = 0;
+
+    private PermissionNodeCache() {
+    }
+
+    public boolean isOp(UUID uuid) {
+        int tick = getTick();
+        Entry entry = ops.get(uuid);
+        if (entry != null && entry.expiry > tick) {
+            hits++;
+            return entry.value;
+        }
+        misses++;
+        boolean value = PlayerUtils.isOp(uuid);
+        ops.put(uuid, new Entry(value, tick + Config.permissionNodeCacheTicks));
+        return value;
+    }
+
+    public boolean hasPermission(UUID uuid, String permission) {
+        int tick = getTick();
+        Map<String, Entry> playerNodes = nodes.get(uuid);
+        if (playerNodes == null) {
+            playerNodes = new HashMap<String, Entry>();
+            nodes.put(uuid, playerNodes);
+        }
+        Entry entry = playerNodes.get(permission);
+        if (entry != null && entry.expiry > tick) {
+            hits++;
+            return entry.value;
+        }
+        misses++;
+        boolean value = PermissionProxy.getPermissionManager().hasPermission(uuid, permission);
+        playerNodes.put(permission, new Entry(value, tick + Config.permissionNodeCacheTicks));
+        return value;
+    }
+
+    /**
+     * Drops everything cached for the player. Called when the player logs in or out.
+     */
+    public void flush(UUID uuid) {
+        nodes.remove(uuid);
+        ops.remove(uuid);
+    }
+
+    public void flushAll() {
+        nodes.clear();
+        ops.clear();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    private static int getTick() {
+        MinecraftServer server = MinecraftServer.getServer();
+        return server == null ? 0 : server.getTickCounter();
+    }
+
+    private static class Entry {
+        private final boolean value;
+        private final int expiry;
+
+        private Entry(boolean value, int expiry) {
+            this.value = value;
+            this.expiry = expiry;
+        }
+    }
+}
@@ -5,7 +5,6 @@ import myessentials.entities.BlockPos;
 import myessentials.entities.Volume;
 import mytown.MyTown;
 import mytown.datasource.MyTownDatasource;
-import mytown.datasource.MyTownUniverse;
 import mytown.entities.*;
 import mytown.entities.flag.FlagType;
 import mytown.protection.segment.*;
@@ -13,6 +12,7 @@ import mytown.protection.segment.enums.BlockType;
 import mytown.protection.segment.enums.EntityType;
 import mytown.protection.segment.enums.ItemType;
 import mytown.proxies.DatasourceProxy;
+import mytown.util.MyTownUtils;
 import mytown.util.exceptions.ConditionException;
 import mytown.util.exceptions.GetterException;
 import net.minecraft.block.Block;
@@ -65,58 +65,55 @@ public class Protection {
         this.version = version;
     }
 
-    public boolean checkTileEntity(TileEntity te) {
-        for(Iterator<SegmentTileEntity> it = segmentsTiles.iterator(); it.hasNext();) {
-            SegmentTileEntity segment = it.next();
-            if(segment.getCheckClass().isAssignableFrom(te.getClass())) {
-                try {
-                    if(segment.checkCondition(te)) {
-                        Volume teBox = new Volume(segment.getX1(te), segment.getY1(te), segment.getZ1(te), segment.getX2(te), segment.getY2(te), segment.getZ2(te));
-                        int dim = te.getWorldObj().provider.dimensionId;
-                        Resident owner = segment.hasOwner() ? Protections.instance.getOwnerForTileEntity(te) : null;
-                        if (!hasPermission(owner, segment, dim, teBox)) {
-                            return true;
-                        }
-                    }
-                } catch (Exception ex) {
-                    MyTown.instance.LOG.error("Failed to check tile entity: {} ({}, {}, {}, Dim: {})", te.getClass().getSimpleName(), te.xCoord, te.yCoord, te.zCoord, te.getWorldObj().provider.dimensionId);
-                    MyTown.instance.LOG.error(ExceptionUtils.getStackTrace(ex));
-                    // Disabling protection if something errors.
-                    if(ex instanceof GetterException || ex instanceof ConditionException) {
-                        this.disableSegment(it, segment, ex.getMessage());
-                    } else {
-                        MyTown.instance.LOG.error("Skipping...");
+    /**
+     * Checks the tile entity against the segments of this protection that match its class, resolved by ClassProtections.
+     */
+    public boolean checkTileEntity(TileEntity te, List<SegmentTileEntity> segments) {
+        for(SegmentTileEntity segment : segments) {
+            try {
+                if(segment.checkCondition(te)) {
+                    Volume teBox = new Volume(segment.getX1(te), segment.getY1(te), segment.getZ1(te), segment.getX2(te), segment.getY2(te), segment.getZ2(te));
+                    int dim = te.getWorldObj().provider.dimensionId;
+                    Resident owner = segment.hasOwner() ? Protections.instance.getOwnerForTileEntity(te) : null;
+                    if (!hasPermission(owner, segment, dim, teBox)) {
+                        return true;
                     }
                 }
-                return false;
+            } catch (Exception ex) {
+                MyTown.instance.LOG.error("Failed to check tile entity: {} ({}, {}, {}, Dim: {})", te.getClass().getSimpleName(), te.xCoord, te.yCoord, te.zCoord, te.getWorldObj().provider.dimensionId);
+                MyTown.instance.LOG.error(ExceptionUtils.getStackTrace(ex));
+                // Disabling protection if something errors.
+                if(ex instanceof GetterException || ex instanceof ConditionException) {
+                    this.disableSegment(segment, ex.getMessage());
+                } else {
+                    MyTown.instance.LOG.error("Skipping...");
+                }
             }
         }
         return false;
     }
 
-    // TODO: Add condition check
-    public boolean checkEntity(Entity entity) {
-        for(SegmentEntity segment : segmentsEntities) {
-            if (segment.getCheckClass().isAssignableFrom(entity.getClass())) {
-                if(segment.getType() == EntityType.TRACKED) {
-                    if (segment.checkCondition(entity)) {
-                        int range = segment.getRange(entity);
-                        Resident owner = segment.getOwner(entity);
-                        int dim = entity.dimension;
-                        int x = (int) Math.floor(entity.posX);
-                        int y = (int) Math.floor(entity.posY);
-                        int z = (int) Math.floor(entity.posZ);
+    /**
+     * Checks the entity against the tracked segments of this protection that match its class, resolved by ClassProtections.
+     */
+    public boolean checkEntity(Entity entity, List<SegmentEntity> segments) {
+        for(SegmentEntity segment : segments) {
+            if (segment.checkCondition(entity)) {
+                int range = segment.getRange(entity);
+                Resident owner = segment.getOwner(entity);
+                int dim = entity.dimension;
+                int x = (int) Math.floor(entity.posX);
+                int y = (int) Math.floor(entity.posY);
+                int z = (int) Math.floor(entity.posZ);
 
-                        if(range == 0) {
-                            if (!hasPermission(owner, segment, dim, x, y, z)) {
-                                return true;
-                            }
-                        } else {                            
-                            Volume rangeBox = new Volume(x-range, y-range, z-range, x+range, y+range, z+range);
-                            if (!hasPermission(owner, segment, dim, rangeBox)) {
-                                return true;
-                            }
-                        }
+                if(range == 0) {
+                    if (!hasPermission(owner, segment, dim, x, y, z)) {
+                        return true;
+                    }
+                } else {
+                    Volume rangeBox = new Volume(x-range, y-range, z-range, x+range, y+range, z+range);
+                    if (!hasPermission(owner, segment, dim, rangeBox)) {
+                        return true;
                     }
                 }
             }
@@ -344,23 +341,23 @@ public class Protection {
     }
 
     public boolean hasPermission(Resident res, Segment segment, int dim, int x, int y, int z) {
-        TownBlock townBlock = MyTownUniverse.instance.blocks.get(dim, x >> 4, z >> 4);
+        TownBlock townBlock = MyTownUtils.getTownBlockAtPosition(dim, x >> 4, z >> 4);
         if(townBlock == null) {
             if (res == null) {
-                return !Wild.instance.flagsContainer.getValue(segment.getFlag()).equals(segment.getDenialValue());
+                return !Wild.instance.flagsContainer.hasValue(segment.getFlag(), segment.getDenialValue());
             } else {
                 if (!Wild.instance.hasPermission(res, segment.getFlag(), segment.getDenialValue())) {
-                    res.sendMessage(segment.getFlag().getLocalizedProtectionDenial());
+                    res.protectionDenial(segment.getFlag());
                     return false;
                 }
             }
         } else {
             Town town = townBlock.getTown();
             if (res == null) {
-                return !town.getValueAtCoords(dim, x, y, z, segment.getFlag()).equals(segment.getDenialValue());
+                return !town.getEffectiveFlagsAtCoords(dim, x, y, z, segment.getFlag()).hasValue(segment.getFlag(), segment.getDenialValue());
             } else {
                 if (!town.hasPermission(res, segment.getFlag(), segment.getDenialValue(), dim, x, y, z)) {
-                    res.protectionDenial(segment.getFlag(), town.formatOwners(dim, x, y, z));
+                    res.protectionDenial(segment.getFlag(), town, dim, x, y, z);
                     return false;
                 }
             }
@@ -373,7 +370,7 @@ public class Protection {
 
         for (int townBlockX = area.getMinX() >> 4; townBlockX <= area.getMaxX() >> 4; townBlockX++) {
             for (int townBlockZ = area.getMinZ() >> 4; townBlockZ <= area.getMaxZ() >> 4; townBlockZ++) {
-                TownBlock townBlock = MyTownUniverse.instance.blocks.get(dim, townBlockX, townBlockZ);
+                TownBlock townBlock = MyTownUtils.getTownBlockAtPosition(dim, townBlockX, townBlockZ);
                 
                 if (townBlock == null) {
                     inWild = true;
@@ -387,12 +384,12 @@ public class Protection {
                         int plotIntersectArea = plot.getIntersectingArea(rangeBox);
                         if (plotIntersectArea > 0) {
                             if (res == null) {
-                                if (plot.flagsContainer.getValue(segment.getFlag()).equals(segment.getDenialValue())) {
+                                if (plot.getEffectiveFlags().hasValue(segment.getFlag(), segment.getDenialValue())) {
                                     return false;
                                 }
                             } else {
                                 if (!plot.hasPermission(res, segment.getFlag(), segment.getDenialValue())) {
-                                    res.protectionDenial(segment.getFlag(), MyTown.instance.LOCAL.getLocalization("mytown.notification.town.owners", town.residentsMap.getMayor() == null ? "SERVER ADMINS" : town.residentsMap.getMayor().getPlayerName()));
+                                    res.protectionDenial(segment.getFlag(), town);
                                     return false;
                                 }
                             }
@@ -403,12 +400,12 @@ public class Protection {
                     // If plot area sum is not equal to range area, check town permission
                     if (totalIntersectArea != getArea(rangeBox)) {
                         if (res == null) {
-                            if (town.flagsContainer.getValue(segment.getFlag()).equals(segment.getDenialValue())) {
+                            if (town.getEffectiveFlags().hasValue(segment.getFlag(), segment.getDenialValue())) {
                                 return false;
                             }
                         } else {
                             if (!town.hasPermission(res, segment.getFlag(), segment.getDenialValue())) {
-                                res.protectionDenial(segment.getFlag(), MyTown.instance.LOCAL.getLocalization("mytown.notification.town.owners", town.residentsMap.getMayor() == null ? "SERVER ADMINS" : town.residentsMap.getMayor().getPlayerName()));
+                                res.protectionDenial(segment.getFlag(), town);
                                 return false;
                             }
                         }
@@ -419,12 +416,12 @@ public class Protection {
 
         if (inWild) {
             if (res == null) {
-                if (Wild.instance.flagsContainer.getValue(segment.getFlag()).equals(segment.getDenialValue())) {
+                if (Wild.instance.flagsContainer.hasValue(segment.getFlag(), segment.getDenialValue())) {
                     return false;
                 }
             } else {
                 if (!Wild.instance.hasPermission(res, segment.getFlag(), segment.getDenialValue())) {
-                    res.sendMessage(segment.getFlag().getLocalizedProtectionDenial());
+                    res.protectionDenial(segment.getFlag());
                     return false;
                 }
             }
@@ -451,6 +448,30 @@ public class Protection {
         return flags;
     }
 
+    /**
+     * Gets the segments that check the type of TileEntity.
+     */
+    public List<SegmentTileEntity> getSegmentsForTile(Class<? extends TileEntity> te) {
+        List<SegmentTileEntity> segments = new ArrayList<SegmentTileEntity>();
+        for(SegmentTileEntity segment : segmentsTiles) {
+            if(segment.getCheckClass().isAssignableFrom(te))
+                segments.add(segment);
+        }
+        return segments;
+    }
+
+    /**
+     * Gets the tracked segments that check the type of Entity.
+     */
+    public List<SegmentEntity> getTrackedSegmentsForEntity(Class<? extends Entity> entity) {
+        List<SegmentEntity> segments = new ArrayList<SegmentEntity>();
+        for(SegmentEntity segment : segmentsEntities) {
+            if(segment.getType() == EntityType.TRACKED && segment.getCheckClass().isAssignableFrom(entity))
+                segments.add(segment);
+        }
+        return segments;
+    }
+
     public EntityType getEntityType(Class<? extends Entity> entity) {
         for(SegmentEntity segment : segmentsEntities) {
             if (segment.getCheckClass().isAssignableFrom(entity)) {
@@ -518,6 +539,22 @@ public class Protection {
 
     private void disableSegment(Iterator<? extends Segment> it, Segment segment, String message) {
         it.remove();
+        logDisabledSegment(segment, message);
+    }
+
+    /**
+     * Disables a segment that was reached through the segments cached by ClassProtections.
+     */
+    private void disableSegment(Segment segment, String message) {
+        segmentsTiles.remove(segment);
+        segmentsEntities.remove(segment);
+        segmentsItems.remove(segment);
+        segmentsBlocks.remove(segment);
+        logDisabledSegment(segment, message);
+    }
+
+    private void logDisabledSegment(Segment segment, String message) {
+        Protections.instance.clearClassProtections();
         MyTown.instance.LOG.error(message);
         MyTown.instance.LOG.error("Disabling segment for {} in protection {}.", segment.getCheckClass().getName(), this.modid);
         MyTown.instance.LOG.info("Reload protections to enable it again.");
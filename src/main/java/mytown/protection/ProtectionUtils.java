@@ -5,6 +5,7 @@ import mytown.entities.BlockWhitelist;
 import mytown.entities.Resident;
 import mytown.entities.Town;
 import mytown.entities.flag.FlagType;
+import mytown.protection.segment.SegmentTileEntity;
 import mytown.proxies.DatasourceProxy;
 import mytown.util.MyTownUtils;
 import net.minecraft.block.Block;
@@ -13,7 +14,6 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.tileentity.TileEntity;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -30,14 +30,11 @@ public class ProtectionUtils {
      * Adds to the whitelist of the specified town. Used when placing blocks.
      */
     public static void addToBlockWhitelist(Class<? extends TileEntity> te, int dim, int x, int y, int z, Town town) {
-        for (Protection prot : Protections.instance.getProtectionList()) {
-            if (prot.isTileTracked(te))
-                for (FlagType flagType : prot.getFlagsForTile(te)) {
-                    if (!town.blockWhitelistsContainer.contains(dim, x, y, z, flagType)) {
-                        BlockWhitelist bw = new BlockWhitelist(dim, x, y, z, flagType);
-                        DatasourceProxy.getDatasource().saveBlockWhitelist(bw, town);
-                    }
-                }
+        for (FlagType flagType : Protections.instance.getClassProtections(te).getTileFlags()) {
+            if (!town.blockWhitelistsContainer.contains(dim, x, y, z, flagType)) {
+                BlockWhitelist bw = new BlockWhitelist(dim, x, y, z, flagType);
+                DatasourceProxy.getDatasource().saveBlockWhitelist(bw, town);
+            }
         }
     }
 
@@ -45,14 +42,11 @@ public class ProtectionUtils {
      * Removes from the whitelist. Used when breaking blocks.
      */
     public static void removeFromWhitelist(Class<? extends TileEntity> te, int dim, int x, int y, int z, Town town) {
-        for (Protection prot : Protections.instance.getProtectionList()) {
-            if (prot.isTileTracked(te))
-                for (FlagType flagType : prot.getFlagsForTile(te)) {
-                    BlockWhitelist bw = town.blockWhitelistsContainer.get(dim, x, y, z, flagType);
-                    if (bw != null) {
-                        bw.delete();
-                    }
-                }
+        for (FlagType flagType : Protections.instance.getClassProtections(te).getTileFlags()) {
+            BlockWhitelist bw = town.blockWhitelistsContainer.get(dim, x, y, z, flagType);
+            if (bw != null) {
+                bw.delete();
+            }
         }
     }
 
@@ -60,8 +54,8 @@ public class ProtectionUtils {
      * Checks the tile entity with all the protections
      */
     public static boolean checkTileEntity(TileEntity te) {
-        for (Protection prot : Protections.instance.getProtectionList())
-            if (prot.checkTileEntity(te))
+        for (ClassProtections.Tracking<SegmentTileEntity> tracking : Protections.instance.getClassProtections(te.getClass()).getTileTracking())
+            if (tracking.protection.checkTileEntity(te, tracking.segments))
                 return true;
         return false;
     }
@@ -92,29 +86,15 @@ public class ProtectionUtils {
      * Checks if an entity is hostile
      */
     public static boolean isEntityTracked(Class<? extends Entity> ent) {
-        for (Protection prot : Protections.instance.getProtectionList()) {
-            if (prot.isEntityTracked(ent)) {
-                return true;
-            }
-        }
-        return false;
+        return Protections.instance.getClassProtections(ent).isEntityTracked();
     }
 
     public static boolean isTileEntityOwnable(Class<? extends TileEntity> clsTe) {
-        for(Protection protection : Protections.instance.getProtectionList()) {
-            if(protection.isTileEntityOwnable(clsTe))
-                return true;
-        }
-        return false;
+        return Protections.instance.getClassProtections(clsTe).isTileOwnable();
     }
 
     public static List<FlagType> getFlagsForTile(Class<? extends TileEntity> te) {
-        List<FlagType> flags = new ArrayList<FlagType>();
-        for(Protection protection : Protections.instance.getProtectionList()) {
-            if(protection.isTileTracked(te))
-                flags.addAll(protection.getFlagsForTile(te));
-        }
-        return flags;
+        return Protections.instance.getClassProtections(te).getTileFlags();
     }
 
     /**
@@ -138,11 +118,7 @@ public class ProtectionUtils {
     }
 
     public static boolean canEntityTrespassPvp(Class<? extends Entity> entity) {
-        for(Protection protection : Protections.instance.getProtectionList()) {
-            if(protection.canEntityTrespassPvp(entity))
-                return true;
-        }
-        return false;
+        return Protections.instance.getClassProtections(entity).canEntityTrespassPvp();
     }
 
     public static void saveBlockOwnersToDB() {
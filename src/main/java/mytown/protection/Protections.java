@@ -7,7 +7,6 @@ import cpw.mods.fml.common.gameevent.PlayerEvent;
 import cpw.mods.fml.common.gameevent.TickEvent;
 import cpw.mods.fml.relauncher.Side;
 import myessentials.entities.BlockPos;
-import myessentials.entities.EntityPos;
 import myessentials.utils.PlayerUtils;
 import myessentials.utils.WorldUtils;
 import mytown.MyTown;
@@ -15,15 +14,16 @@ import mytown.config.Config;
 import mytown.datasource.MyTownUniverse;
 import mytown.entities.*;
 import mytown.entities.flag.FlagType;
+import mytown.entities.flag.MobPolicy;
+import mytown.protection.segment.SegmentEntity;
+import mytown.protection.segment.SegmentTileEntity;
 import mytown.protection.segment.enums.ItemType;
 import mytown.proxies.DatasourceProxy;
 import mytown.thread.ThreadPlacementCheck;
-import mytown.util.Formatter;
 import mytown.util.MyTownUtils;
 import net.minecraft.block.Block;
 import net.minecraft.block.ITileEntityProvider;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -33,15 +33,20 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumChatFormatting;
+import net.minecraft.world.World;
+import net.minecraftforge.common.util.BlockSnapshot;
 import net.minecraftforge.common.util.FakePlayer;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.event.entity.living.LivingAttackEvent;
 import net.minecraftforge.event.entity.living.LivingSpawnEvent;
 import net.minecraftforge.event.entity.player.*;
 import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -52,7 +57,6 @@ public class Protections {
 
     public static final Protections instance = new Protections();
 
-    public Map<EntityPlayer, EntityPos> lastTickPlayerPos = new HashMap<EntityPlayer, EntityPos>();
     public Map<TileEntity, Resident> ownedTileEntities = new HashMap<TileEntity, Resident>();
 
     public int activePlacementThreads = 0;
@@ -64,16 +68,63 @@ public class Protections {
     // ---- All the counters/tickers for preventing check every tick ----
     private int tickerTilesChecks = 20;
     private int tickerTilesChecksStart = 20;
-    private int itemPickupCounter = 0;
+
+    /**
+     * Progress of the entity checks in each dimension, spread over multiple ticks.
+     */
+    private final Map<Integer, EntityScan> entityScans = new HashMap<Integer, EntityScan>();
+    private long entityScanOverruns = 0;
+
+    /**
+     * What the protections have to say about each class of entity or tile entity, resolved on first use.
+     * Cleared whenever the protections or their segments change.
+     */
+    private final Map<Class<?>, ClassProtections> classProtections = new IdentityHashMap<Class<?>, ClassProtections>();
+
+    /**
+     * The tile entities tracked by the protections, and the tick each dimension was last fully reindexed.
+     */
+    public final TrackedTileEntities trackedTiles = new TrackedTileEntities();
+    private final Map<Integer, Integer> trackedTilesRebuilt = new HashMap<Integer, Integer>();
+
+    public final BlockWhitelistValidator whitelistValidator = new BlockWhitelistValidator();
 
     // ---- Utility methods for accessing protections ----
 
-    public void addProtection(Protection prot) { protectionList.add(prot); }
-    public void removeProtection(Protection prot) { protectionList.remove(prot); }
+    public void addProtection(Protection prot) {
+        protectionList.add(prot);
+        clearClassProtections();
+    }
+    public void removeProtection(Protection prot) {
+        protectionList.remove(prot);
+        clearClassProtections();
+    }
     public List<Protection> getProtectionList() { return this.protectionList; }
 
     public void reset() {
         protectionList = new ArrayList<Protection>();
+        clearClassProtections();
+    }
+
+    /**
+     * Gets the protections and segments that apply to the class, across all the loaded protections.
+     */
+    public ClassProtections getClassProtections(Class<?> cls) {
+        ClassProtections resolved = classProtections.get(cls);
+        if (resolved == null) {
+            resolved = new ClassProtections(cls, protectionList);
+            classProtections.put(cls, resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * Drops the resolved classes, called when the protections change or a segment gets disabled.
+     * The tracked tile entities are reindexed on the next check since the tracked classes might be different.
+     */
+    public void clearClassProtections() {
+        classProtections.clear();
+        trackedTilesRebuilt.clear();
     }
 
     public Resident getOwnerForTileEntity(TileEntity te) {
@@ -85,16 +136,13 @@ public class Protections {
 
     @SubscribeEvent
     public void serverTick(TickEvent.ServerTickEvent ev) {
-        // TODO: Add a command to clean up the block whitelist table periodically
-        if (MinecraftServer.getServer().getTickCounter() % 600 == 0) {
-            for (Town town : MyTownUniverse.instance.towns)
-                for (int i = 0; i < town.blockWhitelistsContainer.size(); i++) {
-                    BlockWhitelist bw = town.blockWhitelistsContainer.get(i);
-                    if (!ProtectionUtils.isBlockWhitelistValid(bw)) {
-                        DatasourceProxy.getDatasource().deleteBlockWhitelist(bw, town);
-                    }
-                }
+        if (ev.phase != TickEvent.Phase.START) {
+            return;
+        }
+        if (Config.blockWhitelistSweepPeriod > 0 && MinecraftServer.getServer().getTickCounter() % Config.blockWhitelistSweepPeriod == 0) {
+            whitelistValidator.addAll();
         }
+        whitelistValidator.tick();
     }
 
     @SuppressWarnings("unchecked")
@@ -108,98 +156,237 @@ public class Protections {
 
         //MyTown.instance.LOG.info("Tick number: " + MinecraftServer.getServer().getTickCounter());
 
-        // Entity check
-        // TODO: Rethink this system a couple million times before you come up with the best algorithm :P
-        for (int i = 0; i < ev.world.loadedEntityList.size(); i++) {
-            Entity entity = (Entity) ev.world.loadedEntityList.get(i);
-            Town town = MyTownUtils.getTownAtPosition(entity.dimension, (int) Math.floor(entity.posX) >> 4, (int) Math.floor(entity.posZ) >> 4);
-            //MyTown.instance.log.info("Checking player...");
-            // Player check, every tick
+        // Player check, every tick
+        for (int i = 0; i < ev.world.playerEntities.size(); i++) {
+            Entity entity = (Entity) ev.world.playerEntities.get(i);
             if (entity instanceof EntityPlayerMP && !(entity instanceof FakePlayer)) {
-                checkPlayer((EntityPlayerMP) entity, town);
-            } else {
-                // Other entity checks
-                if(MinecraftServer.getServer().getTickCounter() % 20 == 0) {
-                    if(town != null && entity instanceof EntityLiving && "none".equals(town.getValueAtCoords(entity.dimension, (int) Math.floor(entity.posX), (int) Math.floor(entity.posY), (int) Math.floor(entity.posZ), FlagType.MOBS))) {
-                        entity.setDead();
-                    }
-                    // Don't check twice
-                    if(!entity.isDead) {
-                        for (Protection prot : protectionList) {
-                            if (prot.isEntityTracked(entity.getClass()) && prot.checkEntity(entity)) {
-                                entity.setDead();
-                                break;
-                            }
-                        }
-                    }
-                }
+                checkPlayer((EntityPlayerMP) entity);
             }
         }
 
+        // Other entity checks, spread over ticks
+        checkEntities(ev.world);
+
         // TileEntity check
         if(MinecraftServer.getServer().getTickCounter() % 20 == 0) {
             if (activePlacementThreads == 0) {
-                for (int i = 0; i < ev.world.loadedTileEntityList.size(); i++) {
-                    TileEntity te = (TileEntity) ev.world.loadedTileEntityList.get(i);
-                    for (Protection prot : protectionList) {
-                        if (prot.isTileTracked(te.getClass()) && prot.checkTileEntity(te)) {
-                            ItemStack itemStack = new ItemStack(te.getBlockType(), 1, te.getBlockMetadata());
-                            NBTTagCompound nbt = new NBTTagCompound();
-                            te.writeToNBT(nbt);
-                            itemStack.setTagCompound(nbt);
-                            WorldUtils.dropAsEntity(te.getWorldObj(), te.xCoord, te.yCoord, te.zCoord, itemStack);
-                            te.getWorldObj().setBlock(te.xCoord, te.yCoord, te.zCoord, Blocks.air);
-                            te.invalidate();
-                            MyTown.instance.LOG.info("TileEntity {} was ATOMICALLY DISINTEGRATED!", te.toString());
-                            break;
-                        }
+                checkTileEntities(ev.world);
+            }
+        }
+    }
+
+    /**
+     * Checks the tracked tile entities that are in or near a claimed chunk.
+     * The dimension is reindexed every tileEntityReindexPeriod ticks to pick up tile entities placed without an event.
+     */
+    @SuppressWarnings("unchecked")
+    private void checkTileEntities(World world) {
+        int dim = world.provider.dimensionId;
+        int tick = MinecraftServer.getServer().getTickCounter();
+        Integer lastRebuild = trackedTilesRebuilt.get(dim);
+        if (lastRebuild == null || tick - lastRebuild >= Config.tileEntityReindexPeriod) {
+            trackedTiles.rebuildDim(dim, (List<TileEntity>) world.loadedTileEntityList);
+            trackedTilesRebuilt.put(dim, tick);
+        }
+
+        for (TrackedTileEntities.ChunkTiles chunk : trackedTiles.getChunks(dim)) {
+            if (!MyTownUniverse.instance.claims.isAnyClaimedNear(dim, chunk.chunkX, chunk.chunkZ, Config.tileEntityCheckRange)) {
+                continue;
+            }
+            trackedTiles.removeInvalid(chunk);
+            for (int i = 0; i < chunk.tiles.size(); i++) {
+                TileEntity te = chunk.tiles.get(i);
+                for (ClassProtections.Tracking<SegmentTileEntity> tracking : getClassProtections(te.getClass()).getTileTracking()) {
+                    if (tracking.protection.checkTileEntity(te, tracking.segments)) {
+                        ItemStack itemStack = new ItemStack(te.getBlockType(), 1, te.getBlockMetadata());
+                        NBTTagCompound nbt = new NBTTagCompound();
+                        te.writeToNBT(nbt);
+                        itemStack.setTagCompound(nbt);
+                        WorldUtils.dropAsEntity(te.getWorldObj(), te.xCoord, te.yCoord, te.zCoord, itemStack);
+                        te.getWorldObj().setBlock(te.xCoord, te.yCoord, te.zCoord, Blocks.air);
+                        te.invalidate();
+                        MyTown.instance.LOG.info("TileEntity {} was ATOMICALLY DISINTEGRATED!", te.toString());
+                        break;
                     }
                 }
             }
         }
     }
 
-    private void checkPlayer(EntityPlayerMP player, Town town) {
+    // ---- Tracked tile entities ----
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load ev) {
+        if (ev.world.isRemote)
+            return;
+        trackedTiles.addChunk(ev.getChunk());
+        whitelistValidator.addChunk(ev.world.provider.dimensionId, ev.getChunk().xPosition, ev.getChunk().zPosition);
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload ev) {
+        if (ev.world.isRemote)
+            return;
+        trackedTiles.removeChunk(ev.world.provider.dimensionId, ev.getChunk().xPosition, ev.getChunk().zPosition);
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload ev) {
+        if (ev.world.isRemote)
+            return;
+        trackedTiles.removeDim(ev.world.provider.dimensionId);
+        trackedTilesRebuilt.remove(ev.world.provider.dimensionId);
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onTileEntityPlaced(BlockEvent.PlaceEvent ev) {
+        if (ev.world.isRemote || ev.isCanceled())
+            return;
+        if (ev instanceof BlockEvent.MultiPlaceEvent) {
+            for (BlockSnapshot snapshot : ((BlockEvent.MultiPlaceEvent) ev).getReplacedBlockSnapshots()) {
+                trackedTiles.add(ev.world.getTileEntity(snapshot.x, snapshot.y, snapshot.z));
+            }
+        } else {
+            trackedTiles.add(ev.world.getTileEntity(ev.x, ev.y, ev.z));
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onTileEntityBroken(BlockEvent.BreakEvent ev) {
+        if (ev.world.isRemote || ev.isCanceled())
+            return;
+        trackedTiles.remove(ev.world.getTileEntity(ev.x, ev.y, ev.z));
+    }
+
+    /**
+     * Checks a slice of the loaded entities so that all of them are checked once every entityCheckPeriod ticks,
+     * without going over the entityChecksPerTick budget. If the budget is hit the full scan takes longer.
+     */
+    private void checkEntities(World world) {
+        EntityScan scan = entityScans.get(world.provider.dimensionId);
+        if (scan == null) {
+            scan = new EntityScan(MinecraftServer.getServer().getTickCounter());
+            entityScans.put(world.provider.dimensionId, scan);
+        }
+
+        int size = world.loadedEntityList.size();
+        int period = Math.max(Config.entityCheckPeriod, 1);
+        int toCheck = (size + period - 1) / period;
+        if (Config.entityChecksPerTick > 0 && toCheck > Config.entityChecksPerTick) {
+            toCheck = Config.entityChecksPerTick;
+        }
+
+        for (int checked = 0; checked < toCheck && scan.cursor < size; scan.cursor++) {
+            Entity entity = (Entity) world.loadedEntityList.get(scan.cursor);
+            if (entity instanceof EntityPlayerMP && !(entity instanceof FakePlayer)) {
+                continue;
+            }
+            checkEntity(entity);
+            checked++;
+        }
+
+        if (scan.cursor >= size) {
+            int tick = MinecraftServer.getServer().getTickCounter();
+            scan.lastPeriod = tick - scan.passStart;
+            if (scan.lastPeriod > period) {
+                entityScanOverruns++;
+            }
+            scan.cursor = 0;
+            scan.passStart = tick;
+        }
+    }
+
+    private void checkEntity(Entity entity) {
+        // Mostly denied on spawn already, this catches the mobs that wandered in
+        if(!getMobPolicy(entity).allows(entity)) {
+            entity.setDead();
+        }
+        // Don't check twice
+        if(!entity.isDead) {
+            for (ClassProtections.Tracking<SegmentEntity> tracking : getClassProtections(entity.getClass()).getEntityTracking()) {
+                if (tracking.protection.checkEntity(entity, tracking.segments)) {
+                    entity.setDead();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the amount of ticks the last full entity scan took in the dimension, or -1 if none finished yet.
+     */
+    public int getEntityScanPeriod(int dim) {
+        EntityScan scan = entityScans.get(dim);
+        return scan == null ? -1 : scan.lastPeriod;
+    }
+
+    /**
+     * Gets the amount of full entity scans that took longer than entityCheckPeriod because of the budget.
+     */
+    public long getEntityScanOverruns() {
+        return entityScanOverruns;
+    }
+
+    /**
+     * Checks the player's movement against the ENTER flag and sends the town and plot notifications.
+     * Only does any lookup when the player crossed a chunk or plot boundary since last tick.
+     */
+    private void checkPlayer(EntityPlayerMP player) {
         Resident res = MyTownUniverse.instance.getOrMakeResident(player);
-        EntityPos lastTickPos = lastTickPlayerPos.get(player);
-        
         if (res == null) {
-        	return;
+            return;
         }
 
-        if (town != null && !town.hasPermission(res, FlagType.ENTER, false, player.dimension, (int) Math.floor(player.posX), (int) Math.floor(player.posY), (int) Math.floor(player.posZ))) {
-            res.protectionDenial(FlagType.ENTER, town.formatOwners(player.dimension, (int) Math.floor(player.posX), (int) Math.floor(player.posY), (int) Math.floor(player.posZ)));
-            if(lastTickPos == null)
-                res.knockbackPlayerToBorder(town);
-            else
-            if(lastTickPos.getX() != player.posX || lastTickPos.getY() != player.posY || lastTickPos.getZ() != player.posZ || lastTickPos.getDim() != player.dimension) {
-                PlayerUtils.teleport(player, lastTickPos.getDim(), lastTickPos.getX(), lastTickPos.getY(), lastTickPos.getZ());
+        PlayerMovement movement = res.getMovement();
+        int x = (int) Math.floor(player.posX);
+        int y = (int) Math.floor(player.posY);
+        int z = (int) Math.floor(player.posZ);
+
+        int locationVersion = MyTownUniverse.instance.getLocationVersion();
+        boolean stale = movement.getLocationVersion() != locationVersion;
+
+        TownBlock block;
+        Plot plot;
+        if (!stale && movement.isInChunk(player.dimension, x >> 4, z >> 4)) {
+            block = movement.getBlock();
+            plot = block == null || block.plotsContainer.isEmpty() ? null : block.plotsContainer.get(player.dimension, x, y, z);
+            if (plot == movement.getPlot()) {
+                movement.update(player.posX, player.posY, player.posZ, player.dimension);
+                return;
             }
         } else {
-            // Chunk changed
-            // TODO: Refactor so that it's understandable
-            if(lastTickPos != null && (((int) Math.floor(lastTickPos.getX())) >> 4 != (int)(Math.floor(player.posX)) >> 4 || ((int) Math.floor(lastTickPos.getZ())) >> 4 != (int)(Math.floor(player.posZ)) >> 4)) {
-                if (lastTickPos.getDim() == player.dimension) {
-                    res.checkLocation(((int) Math.floor(lastTickPos.getX())) >> 4, ((int) Math.floor(lastTickPos.getZ())) >> 4,
-                            ((int) Math.floor(player.posX)) >> 4, ((int) (Math.floor(player.posZ))) >> 4, player.dimension);
-                } else {
-                    res.checkLocationOnDimensionChanged((int) (Math.floor(player.posX)), (int) (Math.floor(player.posZ)), player.dimension);
-                }
-            }
+            block = MyTownUtils.getTownBlockAtPosition(player.dimension, x >> 4, z >> 4);
+            plot = block == null ? null : block.plotsContainer.get(player.dimension, x, y, z);
+        }
 
-            if(lastTickPos != null && town != null) {
-                Plot currentPlot = town.plotsContainer.get(player.dimension, (int) Math.floor(player.posX), (int) Math.floor(player.posY), (int) Math.floor(player.posZ));
-                Plot lastTickPlot = town.plotsContainer.get(lastTickPos.getDim(), (int) Math.floor(lastTickPos.getX()), (int) Math.floor(lastTickPos.getY()), (int) Math.floor(lastTickPos.getZ()));
+        Town town = block == null ? null : block.getTown();
+        if (town != null && !town.hasPermission(res, FlagType.ENTER, false, player.dimension, x, y, z)) {
+            res.protectionDenial(FlagType.ENTER, town, player.dimension, x, y, z);
+            if (!movement.isKnown() || stale && movement.isInChunk(player.dimension, x >> 4, z >> 4)) {
+                // Either just logged in or the town changed around the player
+                res.knockbackPlayerToBorder(town);
+            } else {
+                PlayerUtils.teleport(player, movement.getDim(), movement.getX(), movement.getY(), movement.getZ());
+            }
+            return;
+        }
 
-                if(currentPlot != null && (lastTickPlot == null || currentPlot != lastTickPlot)) {
-                    res.sendMessage(MyTown.instance.LOCAL.getLocalization("mytown.notification.plot.enter", currentPlot.getName()));
-                } else if(currentPlot == null && lastTickPlot != null) {
-                    res.sendMessage(MyTown.instance.LOCAL.getLocalization("mytown.notification.plot.enter", EnumChatFormatting.RED + "Unassigned"));
-                }
+        if (movement.isKnown()) {
+            if (movement.getDim() != player.dimension) {
+                res.checkLocationOnDimensionChanged(x >> 4, z >> 4, player.dimension);
+            } else if (movement.getChunkX() != x >> 4 || movement.getChunkZ() != z >> 4) {
+                res.checkLocation(movement.getChunkX(), movement.getChunkZ(), x >> 4, z >> 4, player.dimension);
             }
 
-            lastTickPlayerPos.put(player, new EntityPos(player.posX, player.posY, player.posZ, player.dimension));
+            Plot lastPlot = movement.getPlot();
+            if (plot != null && plot != lastPlot) {
+                res.sendMessage(MyTown.instance.LOCAL.getLocalization("mytown.notification.plot.enter", plot.getName()));
+            } else if (plot == null && lastPlot != null && lastPlot.getTown() == town) {
+                res.sendMessage(MyTown.instance.LOCAL.getLocalization("mytown.notification.plot.enter", EnumChatFormatting.RED + "Unassigned"));
+            }
         }
+
+        movement.update(player.posX, player.posY, player.posZ, player.dimension, block, plot, locationVersion);
     }
 
     @SuppressWarnings("unchecked")
@@ -207,43 +394,33 @@ public class Protections {
     public void onPlayerAttackEntityEvent(AttackEntityEvent ev) {
         if(ev.entity.worldObj.isRemote || ev.isCanceled())
             return;
-        TownBlock block = MyTownUniverse.instance.blocks.get(ev.target.dimension, ev.target.chunkCoordX, ev.target.chunkCoordZ);
         Resident res = MyTownUniverse.instance.getOrMakeResident(ev.entityPlayer);
-        if (block == null) {
+        LocationContext location = res.getLocation(ev.target.dimension, (int) Math.floor(ev.target.posX), (int) Math.floor(ev.target.posY), (int) Math.floor(ev.target.posZ));
+        if (location.isWild()) {
             // Bypass for fakePlayers
-            if(ev.entityPlayer instanceof FakePlayer && (Boolean)Wild.instance.flagsContainer.getValue(FlagType.FAKERS))
+            if(ev.entityPlayer instanceof FakePlayer && Wild.instance.flagsContainer.getBoolean(FlagType.FAKERS))
                 return;
 
             // Allow pvp on players.
-            if(ev.target instanceof EntityPlayer && (Boolean)Wild.instance.flagsContainer.getValue(FlagType.PVP))
+            if(ev.target instanceof EntityPlayer && Wild.instance.flagsContainer.getBoolean(FlagType.PVP))
                 return;
 
-            if(!Wild.instance.hasPermission(res, FlagType.PVE, false)) {
-                for(Protection prot : protectionList) {
-                    if(prot.isEntityProtected(ev.target.getClass())) {
-                        ev.setCanceled(true);
-                        res.sendMessage(FlagType.PVE.getLocalizedProtectionDenial());
-                        return;
-                    }
-                }
+            if(!Wild.instance.hasPermission(res, FlagType.PVE, false) && getClassProtections(ev.target.getClass()).isEntityProtected()) {
+                ev.setCanceled(true);
+                res.protectionDenial(FlagType.PVE);
             }
         } else {
             // Bypass for fakePlayers
-            if(ev.entityPlayer instanceof FakePlayer && (Boolean)block.getTown().getValueAtCoords(ev.target.dimension, (int) Math.floor(ev.target.posX), (int) Math.floor(ev.target.posY), (int)Math.floor(ev.target.posZ), FlagType.FAKERS))
+            if(ev.entityPlayer instanceof FakePlayer && location.getBoolean(FlagType.FAKERS))
                 return;
 
             // Allow pvp on players.
-            if(ev.target instanceof EntityPlayer && (Boolean)block.getTown().getValueAtCoords(ev.target.dimension, (int) Math.floor(ev.target.posX), (int) Math.floor(ev.target.posY), (int) Math.floor(ev.target.posZ), FlagType.PVP))
+            if(ev.target instanceof EntityPlayer && location.getBoolean(FlagType.PVP))
                 return;
 
-            if (!block.getTown().hasPermission(res, FlagType.PVE, false, ev.target.dimension, (int) Math.floor(ev.target.posX), (int) Math.floor(ev.target.posY), (int) Math.floor(ev.target.posZ))) {
-                for (Protection prot : protectionList) {
-                    if (prot.isEntityProtected(ev.target.getClass())) {
-                        ev.setCanceled(true);
-                        res.protectionDenial(FlagType.PVE, block.getTown().formatOwners(ev.target.dimension, (int) Math.floor(ev.target.posX), (int) Math.floor(ev.target.posY), (int) Math.floor(ev.target.posZ)));
-                        return;
-                    }
-                }
+            if (!location.hasPermission(res, FlagType.PVE, false) && getClassProtections(ev.target.getClass()).isEntityProtected()) {
+                ev.setCanceled(true);
+                res.protectionDenial(FlagType.PVE, location);
             }
         }
     }
@@ -268,51 +445,51 @@ public class Protections {
      * Checks against any type of block placement
      */
     public boolean onAnyBlockPlacement(EntityPlayer player, ItemStack itemInHand, Block blockType, int dimensionId, int x, int y, int z) {
-        TownBlock block = MyTownUniverse.instance.blocks.get(dimensionId, x >> 4, z >> 4);
         Resident res = MyTownUniverse.instance.getOrMakeResident(player);
+        LocationContext location = res.getLocation(dimensionId, x, y, z);
 
-
-        if (block == null) {
+        if (location.isWild()) {
             // Bypass for fakePlayers
-            if(player instanceof FakePlayer && (Boolean)Wild.instance.flagsContainer.getValue(FlagType.FAKERS))
+            if(player instanceof FakePlayer && Wild.instance.flagsContainer.getBoolean(FlagType.FAKERS))
                 return false;
 
             if (!Wild.instance.hasPermission(res, FlagType.MODIFY, false)) {
-                res.sendMessage(FlagType.MODIFY.getLocalizedProtectionDenial());
+                res.protectionDenial(FlagType.MODIFY);
                 return true;
             } else {
                 // If it has permission, then check nearby
-                List<Town> nearbyTowns = MyTownUtils.getTownsInRange(dimensionId, x, z, Config.placeProtectionRange, Config.placeProtectionRange);
+                List<Town> nearbyTowns = MyTownUniverse.instance.getTownsInRange(dimensionId, x, z, Config.placeProtectionRange, Config.placeProtectionRange);
                 for (Town t : nearbyTowns) {
                     if (!t.hasPermission(res, FlagType.MODIFY, false)) {
-                        res.protectionDenial(FlagType.MODIFY, t.formatOwners(dimensionId, x, y, z));
+                        res.protectionDenial(FlagType.MODIFY, t, dimensionId, x, y, z);
                         return true;
                     }
                 }
             }
         } else {
-            if(player instanceof FakePlayer && (Boolean)block.getTown().getValueAtCoords(dimensionId, x, y, z, FlagType.FAKERS))
+            Town town = location.getTown();
+            if(player instanceof FakePlayer && location.getBoolean(FlagType.FAKERS))
                 return false;
 
-            if (!block.getTown().hasPermission(res, FlagType.MODIFY, false, dimensionId, x, y, z)) {
-                res.protectionDenial(FlagType.MODIFY, block.getTown().formatOwners(dimensionId, x, y, z));
+            if (!location.hasPermission(res, FlagType.MODIFY, false)) {
+                res.protectionDenial(FlagType.MODIFY, location);
                 return true;
             } else {
                 // If it has permission, then check nearby
-                List<Town> nearbyTowns = MyTownUtils.getTownsInRange(dimensionId, x, z, Config.placeProtectionRange, Config.placeProtectionRange);
+                List<Town> nearbyTowns = MyTownUniverse.instance.getTownsInRange(dimensionId, x, z, Config.placeProtectionRange, Config.placeProtectionRange);
                 for (Town t : nearbyTowns) {
-                    if (block.getTown() != t && !t.hasPermission(res, FlagType.MODIFY, false)) {
-                        res.protectionDenial(FlagType.MODIFY, Formatter.formatOwnersToString(t));
+                    if (town != t && !t.hasPermission(res, FlagType.MODIFY, false)) {
+                        res.protectionDenial(FlagType.MODIFY, t);
                         return true;
                     }
                 }
             }
 
-            if (res.townsContainer.contains(block.getTown()) && blockType instanceof ITileEntityProvider && itemInHand != null) {
+            if (res.townsContainer.contains(town) && blockType instanceof ITileEntityProvider && itemInHand != null) {
                 TileEntity te = ((ITileEntityProvider) blockType).createNewTileEntity(MinecraftServer.getServer().worldServerForDimension(dimensionId), itemInHand.getItemDamage());
                 if (te != null) {
                     Class<? extends TileEntity> clsTe = te.getClass();
-                    ProtectionUtils.addToBlockWhitelist(clsTe, dimensionId, x, y, z, block.getTown());
+                    ProtectionUtils.addToBlockWhitelist(clsTe, dimensionId, x, y, z, town);
                 }
             }
         }
@@ -334,17 +511,10 @@ public class Protections {
             return;
         Resident res = MyTownUniverse.instance.getOrMakeResident(ev.entityPlayer);
         ItemStack currStack = ev.entityPlayer.getHeldItem();
-        TownBlock block = MyTownUniverse.instance.blocks.get(ev.target.dimension, ev.target.chunkCoordX, ev.target.chunkCoordZ);
 
-        if(ev.entityPlayer instanceof FakePlayer) {
-            if(block == null) {
-                if((Boolean)Wild.instance.flagsContainer.getValue(FlagType.FAKERS))
-                    return;
-            } else {
-                if((Boolean)block.getTown().getValueAtCoords(ev.target.dimension, (int) Math.floor(ev.target.posX), (int) Math.floor(ev.target.posY), (int) Math.floor(ev.target.posZ), FlagType.FAKERS))
-                    return;
-            }
-        }
+        // Bypass for fakePlayers
+        if(ev.entityPlayer instanceof FakePlayer && res.getLocation(ev.target.dimension, (int) Math.floor(ev.target.posX), (int) Math.floor(ev.target.posY), (int) Math.floor(ev.target.posZ)).getBoolean(FlagType.FAKERS))
+            return;
 
         for (Protection prot : protectionList) {
             if (prot.checkEntityRightClick(currStack, res, ev.target)) {
@@ -374,16 +544,9 @@ public class Protections {
             z = (int) Math.floor(ev.entityPlayer.posZ);
         }
 
-        TownBlock block = MyTownUniverse.instance.blocks.get(ev.world.provider.dimensionId, x >> 4, z >> 4);
-        if(ev.entityPlayer instanceof FakePlayer) {
-            if(block == null) {
-                if((Boolean)Wild.instance.flagsContainer.getValue(FlagType.FAKERS))
-                    return;
-            } else {
-                if((Boolean)block.getTown().getValueAtCoords(ev.world.provider.dimensionId, x, y, z, FlagType.FAKERS))
-                    return;
-            }
-        }
+        // Bypass for fakePlayers
+        if(ev.entityPlayer instanceof FakePlayer && res.getLocation(ev.world.provider.dimensionId, x, y, z).getBoolean(FlagType.FAKERS))
+            return;
 
         /*
         // Testing stuff, please ignore
@@ -427,23 +590,23 @@ public class Protections {
     public void onPlayerBreaksBlock(BlockEvent.BreakEvent ev) {
         if(ev.world.isRemote || ev.isCanceled())
             return;
-        TownBlock block = MyTownUniverse.instance.blocks.get(ev.world.provider.dimensionId, ev.x >> 4, ev.z >> 4);
         Resident res = MyTownUniverse.instance.getOrMakeResident(ev.getPlayer());
-        if (block == null) {
-            if(ev.getPlayer() instanceof FakePlayer && (Boolean)Wild.instance.flagsContainer.getValue(FlagType.FAKERS))
+        LocationContext location = res.getLocation(ev.world.provider.dimensionId, ev.x, ev.y, ev.z);
+        if (location.isWild()) {
+            if(ev.getPlayer() instanceof FakePlayer && Wild.instance.flagsContainer.getBoolean(FlagType.FAKERS))
                 return;
 
             if (!Wild.instance.hasPermission(res, FlagType.MODIFY, false)) {
-                res.sendMessage(FlagType.MODIFY.getLocalizedProtectionDenial());
+                res.protectionDenial(FlagType.MODIFY);
                 ev.setCanceled(true);
             }
         } else {
-            Town town = block.getTown();
-            if(ev.getPlayer() instanceof FakePlayer && (Boolean)town.getValueAtCoords(ev.world.provider.dimensionId, ev.x, ev.y, ev.z, FlagType.FAKERS))
+            Town town = location.getTown();
+            if(ev.getPlayer() instanceof FakePlayer && location.getBoolean(FlagType.FAKERS))
                 return;
 
-            if (!town.hasPermission(res, FlagType.MODIFY, false, ev.world.provider.dimensionId, ev.x, ev.y, ev.z)) {
-                res.protectionDenial(FlagType.MODIFY, town.formatOwners(ev.world.provider.dimensionId, ev.x, ev.y, ev.z));
+            if (!location.hasPermission(res, FlagType.MODIFY, false)) {
+                res.protectionDenial(FlagType.MODIFY, location);
                 ev.setCanceled(true);
                 return;
             }
@@ -472,23 +635,15 @@ public class Protections {
         if(ev.entity.worldObj.isRemote || ev.isCanceled())
             return;
         Resident res = MyTownUniverse.instance.getOrMakeResident(ev.entityPlayer);
-        TownBlock block = MyTownUniverse.instance.blocks.get(ev.entityPlayer.dimension, ev.entityPlayer.chunkCoordX, ev.entityPlayer.chunkCoordZ);
-        if (block != null) {
-            if (!block.getTown().hasPermission(res, FlagType.PICKUP, false, ev.item.dimension, (int) Math.floor(ev.item.posX), (int) Math.floor(ev.item.posY), (int) Math.floor(ev.item.posZ))) {
-                if (itemPickupCounter == 0) {
-                    res.protectionDenial(FlagType.PICKUP, block.getTown().formatOwners(ev.item.dimension, (int) Math.floor(ev.item.posX), (int) Math.floor(ev.item.posY), (int) Math.floor(ev.item.posZ)));
-                    itemPickupCounter = 100;
-                } else
-                    itemPickupCounter--;
+        LocationContext location = res.getLocation(ev.item.dimension, (int) Math.floor(ev.item.posX), (int) Math.floor(ev.item.posY), (int) Math.floor(ev.item.posZ));
+        if (!location.isWild()) {
+            if (!location.hasPermission(res, FlagType.PICKUP, false)) {
+                res.protectionDenial(FlagType.PICKUP, location);
                 ev.setCanceled(true);
             }
         } else {
             if(!Wild.instance.hasPermission(res, FlagType.PICKUP, false)) {
-                if (itemPickupCounter == 0) {
-                    res.sendMessage(FlagType.PICKUP.getLocalizedProtectionDenial());
-                    itemPickupCounter = 100;
-                } else
-                    itemPickupCounter--;
+                res.protectionDenial(FlagType.PICKUP);
                 ev.setCanceled(true);
             }
         }
@@ -499,30 +654,32 @@ public class Protections {
         if(ev.entity.worldObj.isRemote || ev.isCanceled())
             return;
         if(ev.entityLiving instanceof EntityPlayer) {
-            TownBlock block = MyTownUniverse.instance.blocks.get(ev.entityLiving.dimension, ev.entityLiving.chunkCoordX, ev.entityLiving.chunkCoordZ);
+            // The location of the player being attacked
+            Resident target = MyTownUniverse.instance.getOrMakeResident((EntityPlayer) ev.entityLiving);
+            LocationContext location = target.getLocation(ev.entityLiving.dimension, (int) Math.floor(ev.entityLiving.posX), (int) Math.floor(ev.entityLiving.posY), (int) Math.floor(ev.entityLiving.posZ));
             // If the entity that "shot" the source of damage is a Player (ex. an arrow shot by player)
             if(ev.source.getEntity() != null && ev.source.getEntity() instanceof EntityPlayer) {
                 Resident source = MyTownUniverse.instance.getOrMakeResident(ev.source.getEntity());
-                if(block != null) {
-                    if(!(Boolean)block.getTown().getValueAtCoords(ev.entityLiving.dimension, (int) Math.floor(ev.entityLiving.posX), (int) Math.floor(ev.entityLiving.posY), (int) Math.floor(ev.entityLiving.posZ), FlagType.PVP)) {
+                if(!location.isWild()) {
+                    if(!location.getBoolean(FlagType.PVP)) {
                         ev.setCanceled(true);
-                        source.protectionDenial(FlagType.PVP, block.getTown().formatOwners(ev.entityLiving.dimension, (int) Math.floor(ev.entityLiving.posX), (int) Math.floor(ev.entityLiving.posY), (int) Math.floor(ev.entityLiving.posZ)));
+                        source.protectionDenial(FlagType.PVP, location);
                     }
                 } else {
-                    if(!(Boolean)Wild.instance.flagsContainer.getValue(FlagType.PVP)) {
+                    if(!Wild.instance.flagsContainer.getBoolean(FlagType.PVP)) {
                         ev.setCanceled(true);
-                        source.sendMessage(FlagType.PVP.getLocalizedProtectionDenial());
+                        source.protectionDenial(FlagType.PVP);
                     }
                 }
             // If the entity that "shot" the source of damage is null or not a player check for specified entities that can bypass pvp flag
             } else if(ev.source.getSourceOfDamage() != null && ProtectionUtils.canEntityTrespassPvp(ev.source.getSourceOfDamage().getClass())) {
-                if (block != null) {
-                    if (!(Boolean)block.getTown().getValueAtCoords(ev.entityLiving.dimension, (int) Math.floor(ev.entityLiving.posX), (int) Math.floor(ev.entityLiving.posY), (int) Math.floor(ev.entityLiving.posZ), FlagType.PVP)) {
+                if (!location.isWild()) {
+                    if (!location.getBoolean(FlagType.PVP)) {
                         ev.setCanceled(true);
-                        block.getTown().notifyEveryone(FlagType.PVP.getLocalizedTownNotification());
+                        location.getTown().notifyEveryone(FlagType.PVP.getLocalizedTownNotification());
                     }
                 } else {
-                    if (!(Boolean) Wild.instance.flagsContainer.getValue(FlagType.PVP)) {
+                    if (!Wild.instance.flagsContainer.getBoolean(FlagType.PVP)) {
                         ev.setCanceled(true);
                         //target.sendMessage(FlagType.pvp.getLocalizedTownNotification());
                     }
@@ -536,21 +693,21 @@ public class Protections {
         if(ev.entity.worldObj.isRemote || ev.isCanceled())
             return;
         Resident res = MyTownUniverse.instance.getOrMakeResident(ev.entityPlayer);
-        TownBlock block = MyTownUniverse.instance.blocks.get(ev.world.provider.dimensionId, ev.target.blockX >> 4, ev.target.blockZ >> 4);
-        if(block == null) {
-            if(ev.entityPlayer instanceof FakePlayer && (Boolean)Wild.instance.flagsContainer.getValue(FlagType.FAKERS))
+        LocationContext location = res.getLocation(ev.world.provider.dimensionId, ev.target.blockX, ev.target.blockY, ev.target.blockZ);
+        if(location.isWild()) {
+            if(ev.entityPlayer instanceof FakePlayer && Wild.instance.flagsContainer.getBoolean(FlagType.FAKERS))
                 return;
 
             if(!Wild.instance.hasPermission(res, FlagType.USAGE, false)) {
-                res.sendMessage(FlagType.USAGE.getLocalizedProtectionDenial());
+                res.protectionDenial(FlagType.USAGE);
                 ev.setCanceled(true);
             }
         } else {
-            if(ev.entityPlayer instanceof FakePlayer && (Boolean)block.getTown().getValueAtCoords(ev.world.provider.dimensionId, ev.target.blockX, ev.target.blockY, ev.target.blockZ, FlagType.FAKERS))
+            if(ev.entityPlayer instanceof FakePlayer && location.getBoolean(FlagType.FAKERS))
                 return;
 
-            if(!block.getTown().hasPermission(res, FlagType.USAGE, false, ev.world.provider.dimensionId, ev.target.blockX, ev.target.blockY, ev.target.blockZ)) {
-                res.protectionDenial(FlagType.USAGE, block.getTown().formatOwners(ev.world.provider.dimensionId, ev.target.blockX, ev.target.blockY, ev.target.blockZ));
+            if(!location.hasPermission(res, FlagType.USAGE, false)) {
+                res.protectionDenial(FlagType.USAGE, location);
                 ev.setCanceled(true);
             }
         }
@@ -564,9 +721,7 @@ public class Protections {
         if (!(ev.entity instanceof EntityLivingBase) || ev.entity instanceof EntityPlayer)
             return;
 
-        Town town = MyTownUtils.getTownAtPosition(ev.entity.dimension, (int) Math.floor(ev.entity.posX) >> 4, (int) Math.floor(ev.entity.posZ) >> 4);
-
-        if(town != null && ev.entity instanceof EntityLiving && "none".equals(town.getValueAtCoords(ev.entity.dimension, (int) Math.floor(ev.entity.posX), (int) Math.floor(ev.entity.posY), (int) Math.floor(ev.entity.posZ), FlagType.MOBS))) {
+        if(!getMobPolicy(ev.entity).allows(ev.entity)) {
             ev.setCanceled(true);
         }
     }
@@ -575,9 +730,7 @@ public class Protections {
     public void specialSpawn(LivingSpawnEvent.SpecialSpawn ev) {
         if (ev.isCanceled()) return;
 
-        Town town = MyTownUtils.getTownAtPosition(ev.entity.dimension, (int) Math.floor(ev.entity.posX) >> 4, (int) Math.floor(ev.entity.posZ) >> 4);
-
-        if(town != null && ev.entity instanceof EntityLiving && "none".equals(town.getValueAtCoords(ev.entity.dimension, (int) Math.floor(ev.entity.posX), (int) Math.floor(ev.entity.posY), (int) Math.floor(ev.entity.posZ), FlagType.MOBS))) {
+        if(!getMobPolicy(ev.entity).allows(ev.entity)) {
             ev.setCanceled(true);
         }
     }
@@ -586,22 +739,40 @@ public class Protections {
     public void checkSpawn(LivingSpawnEvent.CheckSpawn ev) {
         if (ev.getResult() == Event.Result.DENY) return;
 
-        Town town = MyTownUtils.getTownAtPosition(ev.entity.dimension, (int) Math.floor(ev.entity.posX) >> 4, (int) Math.floor(ev.entity.posZ) >> 4);
-
-        if(town != null && ev.entity instanceof EntityLiving && "none".equals(town.getValueAtCoords(ev.entity.dimension, (int) Math.floor(ev.entity.posX), (int) Math.floor(ev.entity.posY), (int) Math.floor(ev.entity.posZ), FlagType.MOBS))) {
+        if(!getMobPolicy(ev.entity).allows(ev.entity)) {
             ev.setResult(Event.Result.DENY);
         }
     }
 
+    /**
+     * Gets the mob policy at the entity's position, everything is allowed in the wild.
+     */
+    private static MobPolicy getMobPolicy(Entity entity) {
+        int x = (int) Math.floor(entity.posX);
+        int z = (int) Math.floor(entity.posZ);
+        TownBlock block = MyTownUtils.getTownBlockAtPosition(entity.dimension, x >> 4, z >> 4);
+        return block == null ? MobPolicy.ALL : block.getMobPolicy(x, (int) Math.floor(entity.posY), z);
+    }
+
     // Fired AFTER the teleport
     @SubscribeEvent
     public void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent ev) {
-        TownBlock block = MyTownUniverse.instance.blocks.get(ev.player.dimension, ev.player.chunkCoordX, ev.player.chunkCoordZ);
         Resident res = MyTownUniverse.instance.getOrMakeResident(ev.player);
-        if(block != null && !block.getTown().hasPermission(res, FlagType.ENTER, false, ev.player.dimension, (int) Math.floor(ev.player.posX), (int) Math.floor(ev.player.posY), (int) Math.floor(ev.player.posZ))) {
+        LocationContext location = res.getLocation(ev.player.dimension, (int) Math.floor(ev.player.posX), (int) Math.floor(ev.player.posY), (int) Math.floor(ev.player.posZ));
+        if(!location.isWild() && !location.hasPermission(res, FlagType.ENTER, false)) {
             // Because of badly written teleportation code by Mojang we can only send the player back to spawn. :I
             res.respawnPlayer();
-            res.protectionDenial(FlagType.ENTER, block.getTown().formatOwners(ev.player.dimension, (int) Math.floor(ev.player.posX), (int) Math.floor(ev.player.posY), (int) Math.floor(ev.player.posZ)));
+            res.protectionDenial(FlagType.ENTER, location);
+        }
+    }
+
+    private static class EntityScan {
+        private int cursor = 0;
+        private int passStart;
+        private int lastPeriod = -1;
+
+        private EntityScan(int passStart) {
+            this.passStart = passStart;
         }
     }
 }
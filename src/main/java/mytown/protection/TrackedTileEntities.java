@@ -0,0 +1,157 @@
+package mytown.protection;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.chunk.Chunk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The loaded tile entities tracked by any protection, grouped by dimension and chunk.
+ * Filled by Protections from chunk loads and block placements, emptied on chunk unloads and block breaks.
+ */
+public class TrackedTileEntities {
+
+    private final Map<Integer, Map<Long, ChunkTiles>> chunksByDim = new HashMap<Integer, Map<Long, ChunkTiles>>();
+    private int size = 0;
+
+    /**
+     * Adds the tile entity if any protection tracks its class.
+     */
+    public void add(TileEntity te) {
+        if (te == null || te.isInvalid() || te.getWorldObj() == null || !Protections.instance.getClassProtections(te.getClass()).isTileTracked()) {
+            return;
+        }
+        ChunkTiles chunk = getOrMakeChunk(te.getWorldObj().provider.dimensionId, te.xCoord >> 4, te.zCoord >> 4);
+        if (chunk.tileSet.add(te)) {
+            chunk.tiles.add(te);
+            size++;
+        }
+    }
+
+    public void remove(TileEntity te) {
+        if (te == null || te.getWorldObj() == null) {
+            return;
+        }
+        Map<Long, ChunkTiles> chunks = chunksByDim.get(te.getWorldObj().provider.dimensionId);
+        if (chunks == null) {
+            return;
+        }
+        long key = ChunkCoordIntPair.chunkXZ2Int(te.xCoord >> 4, te.zCoord >> 4);
+        ChunkTiles chunk = chunks.get(key);
+        if (chunk != null && chunk.tileSet.remove(te)) {
+            chunk.tiles.remove(te);
+            size--;
+            if (chunk.tiles.isEmpty()) {
+                chunks.remove(key);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void addChunk(Chunk chunk) {
+        for (TileEntity te : (Collection<TileEntity>) chunk.chunkTileEntityMap.values()) {
+            add(te);
+        }
+    }
+
+    public void removeChunk(int dim, int chunkX, int chunkZ) {
+        Map<Long, ChunkTiles> chunks = chunksByDim.get(dim);
+        if (chunks == null) {
+            return;
+        }
+        ChunkTiles chunk = chunks.remove(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+        if (chunk != null) {
+            size -= chunk.tiles.size();
+        }
+    }
+
+    public void removeDim(int dim) {
+        Map<Long, ChunkTiles> chunks = chunksByDim.remove(dim);
+        if (chunks != null) {
+            for (ChunkTiles chunk : chunks.values()) {
+                size -= chunk.tiles.size();
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the index of the dimension from the tile entities loaded in the world.
+     * Picks up the tile entities that were created without a placement event.
+     */
+    public void rebuildDim(int dim, List<TileEntity> loadedTiles) {
+        removeDim(dim);
+        for (int i = 0; i < loadedTiles.size(); i++) {
+            add(loadedTiles.get(i));
+        }
+    }
+
+    public void clear() {
+        chunksByDim.clear();
+        size = 0;
+    }
+
+    /**
+     * Gets the chunks with tracked tile entities in the dimension. Chunks never hold invalid tile entities for long,
+     * but the caller should still skip them.
+     */
+    public Collection<ChunkTiles> getChunks(int dim) {
+        Map<Long, ChunkTiles> chunks = chunksByDim.get(dim);
+        return chunks == null ? Collections.<ChunkTiles>emptyList() : chunks.values();
+    }
+
+    /**
+     * Drops the tile entities that were invalidated since they were added.
+     */
+    public void removeInvalid(ChunkTiles chunk) {
+        for (Iterator<TileEntity> it = chunk.tiles.iterator(); it.hasNext(); ) {
+            TileEntity te = it.next();
+            if (te.isInvalid()) {
+                it.remove();
+                chunk.tileSet.remove(te);
+                size--;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private ChunkTiles getOrMakeChunk(int dim, int chunkX, int chunkZ) {
+        Map<Long, ChunkTiles> chunks = chunksByDim.get(dim);
+        if (chunks == null) {
+            chunks = new HashMap<Long, ChunkTiles>();
+            chunksByDim.put(dim, chunks);
+        }
+        long key = ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ);
+        ChunkTiles chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = new ChunkTiles(chunkX, chunkZ);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    public static class ChunkTiles {
+        public final int chunkX, chunkZ;
+        public final List<TileEntity> tiles = new ArrayList<TileEntity>();
+        /**
+         * The same tile entities as the list, so that adding them doesn't go through the whole list.
+         */
+        private final Set<TileEntity> tileSet = Collections.newSetFromMap(new IdentityHashMap<TileEntity, Boolean>());
+
+        private ChunkTiles(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+    }
+}
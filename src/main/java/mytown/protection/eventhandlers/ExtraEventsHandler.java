@@ -2,11 +2,11 @@ package mytown.protection.eventhandlers;
 
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import myessentials.utils.WorldUtils;
-import mytown.datasource.MyTownUniverse;
 import mytown.entities.TownBlock;
 import mytown.entities.Wild;
 import mytown.entities.flag.FlagType;
 import mytown.proxies.DatasourceProxy;
+import mytown.util.MyTownUtils;
 import myessentials.entities.ChunkPos;
 import net.minecraftforge.event.world.ExplosionEvent;
 
@@ -35,14 +35,14 @@ public class ExtraEventsHandler {
             return;
         List<ChunkPos> chunks = WorldUtils.getChunksInBox(ev.world.provider.dimensionId, (int) (ev.explosion.explosionX - ev.explosion.explosionSize - 2), (int) (ev.explosion.explosionZ - ev.explosion.explosionSize - 2), (int) (ev.explosion.explosionX + ev.explosion.explosionSize + 2), (int) (ev.explosion.explosionZ + ev.explosion.explosionSize + 2));
         for(ChunkPos chunk : chunks) {
-            TownBlock block = MyTownUniverse.instance.blocks.get(ev.world.provider.dimensionId, chunk.getX(), chunk.getZ());
+            TownBlock block = MyTownUtils.getTownBlockAtPosition(ev.world.provider.dimensionId, chunk.getX(), chunk.getZ());
             if(block == null) {
-                if(!(Boolean)Wild.instance.flagsContainer.getValue(FlagType.EXPLOSIONS)) {
+                if(!Wild.instance.flagsContainer.getBoolean(FlagType.EXPLOSIONS)) {
                     ev.setCanceled(true);
                     return;
                 }
             } else {
-                if (!(Boolean) block.getTown().flagsContainer.getValue(FlagType.EXPLOSIONS)) {
+                if (!block.getTown().getEffectiveFlags().getBoolean(FlagType.EXPLOSIONS)) {
                     ev.setCanceled(true);
                     block.getTown().notifyEveryone(FlagType.EXPLOSIONS.getLocalizedTownNotification());
                     return;
@@ -30,12 +30,22 @@ public class MyTownUtils {
      * Returns the town at the specified position or null if nothing found.
      */
     public static Town getTownAtPosition(int dim, int x, int z) {
-        TownBlock block = MyTownUniverse.instance.blocks.get(dim, x, z);
+        TownBlock block = getTownBlockAtPosition(dim, x, z);
         if (block == null)
             return null;
         return block.getTown();
     }
 
+    /**
+     * Returns the TownBlock at the specified chunk or null if nothing found.
+     * Checks the claims bitmap first so that positions in the wild exit early.
+     */
+    public static TownBlock getTownBlockAtPosition(int dim, int x, int z) {
+        if (!MyTownUniverse.instance.claims.isClaimed(dim, x, z))
+            return null;
+        return MyTownUniverse.instance.blocks.get(dim, x, z);
+    }
+
     /**
      * Gets the town at the entity's position
      */
@@ -84,15 +94,7 @@ public class MyTownUtils {
      * Gets all towns in a range
      */
     public static List<Town> getTownsInRange(int dim, int x, int z, int rangeX, int rangeZ) {
-        List<Town> list = new ArrayList<Town>();
-        for (int i = x - rangeX; i <= x + rangeX; i++) {
-            for (int j = z - rangeZ; j <= z + rangeZ; j++) {
-                Town town = getTownAtPosition(dim, i >> 4, j >> 4);
-                if (town != null)
-                    list.add(town);
-            }
-        }
-        return list;
+        return MyTownUniverse.instance.getTownsInRange(dim, x, z, rangeX, rangeZ);
     }
 
     /**
@@ -0,0 +1,83 @@
+package mytown.test.api.container;
+
+import mytown.api.container.BlockWhitelistsContainer;
+import mytown.entities.BlockWhitelist;
+import mytown.entities.flag.FlagType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BlockWhitelistsContainerTest {
+
+    private static final int[] COORDS = {-30000000, -65536, -17, -16, -1, 0, 1, 15, 16, 65536, 30000000};
+    private static final int[] HEIGHTS = {0, 1, 15, 16, 127, 255};
+
+    private BlockWhitelistsContainer container;
+
+    @Before
+    public void shouldStartEmpty() {
+        container = new BlockWhitelistsContainer();
+    }
+
+    @Test
+    public void shouldFitEveryFlagTypeInTheKey() {
+        // The keys only have 4 bits for the flag
+        Assert.assertTrue("Block whitelist keys can only hold 16 flag types, there are " + FlagType.values().length, FlagType.values().length <= 16);
+    }
+
+    @Test
+    public void shouldKeepEveryPositionAndFlagApart() {
+        List<BlockWhitelist> added = new ArrayList<BlockWhitelist>();
+        for (int x : COORDS) {
+            for (int z : COORDS) {
+                for (int y : HEIGHTS) {
+                    for (FlagType flagType : FlagType.values()) {
+                        BlockWhitelist bw = new BlockWhitelist(0, x, y, z, flagType);
+                        container.add(bw);
+                        added.add(bw);
+                    }
+                }
+            }
+        }
+
+        for (BlockWhitelist bw : added) {
+            Assert.assertSame(bw, container.get(bw.getDim(), bw.getX(), bw.getY(), bw.getZ(), bw.getFlagType()));
+            Assert.assertTrue(container.contains(bw));
+        }
+    }
+
+    @Test
+    public void shouldOnlyRemoveTheGivenEntry() {
+        container.add(new BlockWhitelist(0, -1, 64, -1, FlagType.ACCESS));
+        container.add(new BlockWhitelist(0, -1, 64, -1, FlagType.ACTIVATE));
+        container.add(new BlockWhitelist(0, 1, 64, 1, FlagType.ACCESS));
+        container.add(new BlockWhitelist(1, -1, 64, -1, FlagType.ACCESS));
+
+        container.remove(0, -1, 64, -1, FlagType.ACCESS);
+
+        Assert.assertFalse(container.contains(0, -1, 64, -1, FlagType.ACCESS));
+        Assert.assertTrue(container.contains(0, -1, 64, -1, FlagType.ACTIVATE));
+        Assert.assertTrue(container.contains(0, 1, 64, 1, FlagType.ACCESS));
+        Assert.assertTrue(container.contains(1, -1, 64, -1, FlagType.ACCESS));
+        Assert.assertEquals(3, container.size());
+    }
+
+    @Test
+    public void shouldFindEntriesByChunk() {
+        BlockWhitelist inside = new BlockWhitelist(0, -16, 10, -1, FlagType.ACCESS);
+        BlockWhitelist otherChunk = new BlockWhitelist(0, -17, 10, -1, FlagType.ACCESS);
+        container.add(inside);
+        container.add(otherChunk);
+
+        Assert.assertEquals(1, container.getInChunk(0, -1, -1).size());
+        Assert.assertSame(inside, container.getInChunk(0, -1, -1).get(0));
+        Assert.assertSame(otherChunk, container.getInChunk(0, -2, -1).get(0));
+
+        container.remove(inside);
+        Assert.assertTrue(container.getInChunk(0, -1, -1).isEmpty());
+        Assert.assertTrue(container.getInChunk(1, -2, -1).isEmpty());
+    }
+}
@@ -0,0 +1,140 @@
+package mytown.test.api.container;
+
+import mytown.api.container.ClaimsBitmap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class ClaimsBitmapTest {
+
+    private ClaimsBitmap claims;
+
+    @Before
+    public void shouldStartEmpty() {
+        claims = new ClaimsBitmap();
+    }
+
+    @Test
+    public void shouldClaimSingleChunks() {
+        int[][] chunks = {{0, 0}, {31, 31}, {32, 0}, {-1, -1}, {-32, 5}, {-33, -64}, {1000000, -1000000}};
+        for (int[] chunk : chunks) {
+            claims.set(0, chunk[0], chunk[1]);
+        }
+        for (int[] chunk : chunks) {
+            Assert.assertTrue(claims.isClaimed(0, chunk[0], chunk[1]));
+        }
+
+        Assert.assertFalse(claims.isClaimed(0, 1, 0));
+        Assert.assertFalse(claims.isClaimed(0, 0, 1));
+        Assert.assertFalse(claims.isClaimed(0, 31, 30));
+        Assert.assertFalse(claims.isClaimed(0, 33, 0));
+        Assert.assertFalse(claims.isClaimed(0, -2, -1));
+        Assert.assertFalse(claims.isClaimed(0, -31, 5));
+    }
+
+    @Test
+    public void shouldKeepDimensionsApart() {
+        claims.set(0, 3, 4);
+        claims.set(-1, 5, 6);
+
+        Assert.assertTrue(claims.isClaimed(0, 3, 4));
+        Assert.assertFalse(claims.isClaimed(-1, 3, 4));
+        Assert.assertFalse(claims.isClaimed(1, 3, 4));
+        Assert.assertTrue(claims.isClaimed(-1, 5, 6));
+        Assert.assertFalse(claims.isAnyClaimedNear(1, 3, 4, 10));
+    }
+
+    @Test
+    public void shouldOnlyClearTheGivenChunk() {
+        claims.set(0, 10, 10);
+        claims.set(0, 11, 10);
+        claims.clear(0, 10, 10);
+
+        Assert.assertFalse(claims.isClaimed(0, 10, 10));
+        Assert.assertTrue(claims.isClaimed(0, 11, 10));
+
+        claims.clear(0, 11, 10);
+        Assert.assertFalse(claims.isAnyClaimed(0, -100, -100, 100, 100));
+
+        // Clearing chunks that were never claimed does nothing
+        claims.clear(0, 11, 10);
+        claims.clear(7, 0, 0);
+        claims.set(0, 11, 10);
+        Assert.assertTrue(claims.isClaimed(0, 11, 10));
+    }
+
+    @Test
+    public void shouldFindClaimsInBoxesAcrossRegions() {
+        // Odd row, so in the upper half of its word
+        claims.set(0, 40, 33);
+
+        Assert.assertTrue(claims.isAnyClaimed(0, 40, 33, 40, 33));
+        Assert.assertTrue(claims.isAnyClaimed(0, 0, 0, 63, 63));
+        Assert.assertTrue(claims.isAnyClaimed(0, 39, 32, 41, 34));
+        Assert.assertFalse(claims.isAnyClaimed(0, 41, 33, 100, 33));
+        Assert.assertFalse(claims.isAnyClaimed(0, 0, 33, 39, 33));
+        Assert.assertFalse(claims.isAnyClaimed(0, 40, 34, 40, 100));
+        Assert.assertFalse(claims.isAnyClaimed(0, 40, 0, 40, 32));
+
+        Assert.assertTrue(claims.isAnyClaimedNear(0, 38, 35, 2));
+        Assert.assertFalse(claims.isAnyClaimedNear(0, 37, 35, 2));
+        Assert.assertTrue(claims.isAnyClaimedNear(0, 40, 33, 0));
+    }
+
+    @Test
+    public void shouldFindClaimsInFullRegionRows() {
+        claims.set(0, -1, -32);
+
+        Assert.assertTrue(claims.isAnyClaimed(0, -32, -32, -1, -32));
+        Assert.assertTrue(claims.isAnyClaimed(0, -64, -64, 63, 63));
+        Assert.assertFalse(claims.isAnyClaimed(0, -32, -31, -1, -1));
+        Assert.assertFalse(claims.isAnyClaimed(0, 0, -64, 31, 0));
+    }
+
+    @Test
+    public void shouldMatchANaiveSetOfClaims() {
+        Random random = new Random(42);
+        Set<Long> naive = new HashSet<Long>();
+        for (int i = 0; i < 400; i++) {
+            int x = random.nextInt(200) - 100;
+            int z = random.nextInt(200) - 100;
+            claims.set(0, x, z);
+            naive.add(key(x, z));
+        }
+        for (int i = 0; i < 100; i++) {
+            int x = random.nextInt(200) - 100;
+            int z = random.nextInt(200) - 100;
+            claims.clear(0, x, z);
+            naive.remove(key(x, z));
+        }
+
+        for (int x = -110; x <= 110; x++) {
+            for (int z = -110; z <= 110; z++) {
+                Assert.assertEquals(naive.contains(key(x, z)), claims.isClaimed(0, x, z));
+            }
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            int minX = random.nextInt(240) - 120;
+            int minZ = random.nextInt(240) - 120;
+            int maxX = minX + random.nextInt(70);
+            int maxZ = minZ + random.nextInt(70);
+
+            boolean expected = false;
+            for (int x = minX; x <= maxX && !expected; x++) {
+                for (int z = minZ; z <= maxZ && !expected; z++) {
+                    expected = naive.contains(key(x, z));
+                }
+            }
+            Assert.assertEquals(expected, claims.isAnyClaimed(0, minX, minZ, maxX, maxZ));
+        }
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,149 @@
+package mytown.test.handlers;
+
+import mytown.handlers.Scheduler;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SchedulerTest {
+
+    private final Scheduler scheduler = Scheduler.instance;
+    private List<Long> runs;
+
+    @Before
+    public void shouldStartEmpty() {
+        scheduler.clear();
+        runs = new ArrayList<Long>();
+    }
+
+    @Test
+    public void shouldRunAfterTheDelay() {
+        long start = scheduler.getTick();
+        scheduler.schedule(5, new Recorder());
+
+        tick(4);
+        Assert.assertTrue(runs.isEmpty());
+        tick(1);
+        assertRuns(start + 5);
+        tick(300);
+        assertRuns(start + 5);
+    }
+
+    @Test
+    public void shouldRunNonPositiveDelaysOnTheNextTick() {
+        long start = scheduler.getTick();
+        scheduler.schedule(0, new Recorder());
+        scheduler.schedule(-10, new Recorder());
+
+        tick(1);
+        assertRuns(start + 1, start + 1);
+    }
+
+    @Test
+    public void shouldGoRoundTheWheelForLongDelays() {
+        long start = scheduler.getTick();
+        scheduler.schedule(256, new Recorder());
+        scheduler.schedule(257, new Recorder());
+        scheduler.schedule(600, new Recorder());
+        scheduler.schedule(1024, new Recorder());
+
+        tick(1100);
+        assertRuns(start + 256, start + 257, start + 600, start + 1024);
+    }
+
+    @Test
+    public void shouldDeferTasksAddedToTheSlotBeingRun() {
+        final long start = scheduler.getTick();
+        scheduler.schedule(3, new Runnable() {
+            @Override
+            public void run() {
+                runs.add(scheduler.getTick());
+                // Lands in the same slot, one turn later
+                scheduler.schedule(256, new Recorder());
+                scheduler.schedule(1, new Recorder());
+            }
+        });
+
+        tick(3);
+        assertRuns(start + 3);
+        tick(1);
+        assertRuns(start + 3, start + 4);
+        tick(255);
+        assertRuns(start + 3, start + 4, start + 259);
+    }
+
+    @Test
+    public void shouldNotRunCancelledTasks() {
+        Scheduler.Task task = scheduler.schedule(10, new Recorder());
+        task.cancel();
+
+        tick(20);
+        Assert.assertTrue(task.isCancelled());
+        Assert.assertTrue(runs.isEmpty());
+    }
+
+    @Test
+    public void shouldRepeatEveryPeriodUntilCancelled() {
+        long start = scheduler.getTick();
+        Scheduler.Task task = scheduler.scheduleRepeating(2, 300, new Recorder());
+
+        tick(602);
+        assertRuns(start + 2, start + 302, start + 602);
+
+        task.cancel();
+        tick(600);
+        assertRuns(start + 2, start + 302, start + 602);
+    }
+
+    @Test
+    public void shouldStopRepeatingWhenCancelledFromItself() {
+        long start = scheduler.getTick();
+        final Scheduler.Task[] task = new Scheduler.Task[1];
+        task[0] = scheduler.scheduleRepeating(1, 1, new Runnable() {
+            @Override
+            public void run() {
+                runs.add(scheduler.getTick());
+                if (runs.size() == 3) {
+                    task[0].cancel();
+                }
+            }
+        });
+
+        tick(10);
+        assertRuns(start + 1, start + 2, start + 3);
+    }
+
+    @Test
+    public void shouldDropEverythingOnClear() {
+        scheduler.schedule(1, new Recorder());
+        scheduler.scheduleRepeating(400, 5, new Recorder());
+        scheduler.clear();
+
+        tick(500);
+        Assert.assertTrue(runs.isEmpty());
+    }
+
+    private void tick(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            scheduler.tick();
+        }
+    }
+
+    private void assertRuns(Long... ticks) {
+        List<Long> expected = new ArrayList<Long>();
+        for (Long tick : ticks) {
+            expected.add(tick);
+        }
+        Assert.assertEquals(expected, runs);
+    }
+
+    private class Recorder implements Runnable {
+        @Override
+        public void run() {
+            runs.add(scheduler.getTick());
+        }
+    }
+}